@@ -1,57 +1,92 @@
 import java.util.*;
 
 public class DijkstraAlgorithm {
+    private static final int PROGRESS_INTERVAL = 1000; // Anzahl verarbeiteter Knoten zwischen zwei Fortschrittsmeldungen
+
     private Graph graph;
     private Map<String, Double> trackedCosts;
-    private List<String> processedNodes;
     private Map<String, String> trackedParents;
     private List<String> optimalPath;
+    private List<Knoten> optimalPathNodes;
     private List<Knoten> visitedNodes;
+    private int profile; // Index des Kostenprofils, nach dem gesucht wird
 
     public DijkstraAlgorithm(Graph graph) {
         this.graph = graph;
         this.trackedCosts = new HashMap<>();
-        this.processedNodes = new ArrayList<>();
         this.trackedParents = new HashMap<>();
         this.optimalPath = new ArrayList<>();
+        this.optimalPathNodes = new ArrayList<>();
         this.visitedNodes = new ArrayList<>();
     }
 
+    // Wählt das Kostenprofil für die folgenden Berechnungen (Index in graph.getProfiles())
+    public void setProfile(int profile) {
+        this.profile = profile;
+    }
+
+    // Meldet während der Suche die Kennzahl des zuletzt verarbeiteten Knotens und die Anzahl verarbeiteter Knoten
+    public interface ProgressListener {
+        void onProgress(double currentDistance, int settledCount);
+    }
+
     // Berechnet den kürzesten Pfad zwischen Start- und Zielknoten
     public void calculateShortestPath(String startName, String endName) {
+        calculateShortestPath(startName, endName, null);
+    }
+
+    // Wie oben, meldet aber den Fortschritt und bricht ab, sobald der ausführende Thread unterbrochen wird.
+    // Gibt false zurück, wenn die Berechnung abgebrochen wurde.
+    public boolean calculateShortestPath(String startName, String endName, ProgressListener listener) {
         graph.reset();
         trackedCosts.clear();
-        processedNodes.clear();
         trackedParents.clear();
         optimalPath.clear();
+        optimalPathNodes.clear();
         visitedNodes.clear();
 
         // Markiere Startstadt rot, Kennzahl 0
         Knoten startNode = graph.getNodeByName(startName);
-        if (startNode == null) return;
+        if (startNode == null) return true;
 
         startNode.setDistance(0);
         trackedCosts.put(startName, 0.0);
-        processedNodes.add(startName);
+
+        // Kosten aller Kanten im gewählten Profil; ein währenddessen geladenes Profil gilt erst für die nächste Suche
+        double[] weights = graph.getProfileWeights(profile);
 
         PriorityQueue<Knoten> queue = new PriorityQueue<>(Comparator.comparingDouble(Knoten::getDistance));
         queue.add(startNode);
 
         while (!queue.isEmpty()) {
+            // Abbruch, wenn eine neuere Anfrage diese ersetzt hat
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+
             Knoten currentNode = queue.poll();
+            // Veraltete Einträge überspringen: der Knoten wurde bereits mit kleinerer Kennzahl verarbeitet
+            if (currentNode.isProcessed()) continue;
+            currentNode.setProcessed(true);
             visitedNodes.add(currentNode);
 
+            if (listener != null && visitedNodes.size() % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(currentNode.getDistance(), visitedNodes.size());
+            }
+
             // Prüfe, ob Zielstadt erreicht
             if (currentNode.getName().equals(endName)) {
                 break;
             }
 
-            // Gehe durch alle Nachbarstädte
-            for (Knoten neighbor : currentNode.getNeighbors()) {
+            // Gehe durch alle Nachbarstädte (bei einer gekachelten Karte werden deren Kacheln vorher geladen)
+            graph.loadNeighbors(currentNode);
+            currentNode.forEachEdge((neighbor, edge) -> {
                 // Wenn Nachbarstadt noch nicht rot markiert
-                if (!processedNodes.contains(neighbor.getName())) {
-                    // Berechne Kennzahl: bisherige Kennzahl + Streckenlänge
-                    double newDistance = currentNode.getDistance() + calculateDistance(currentNode, neighbor);
+                if (!neighbor.isProcessed()) {
+                    // Berechne Kennzahl: bisherige Kennzahl + Kosten der Kante im gewählten Profil (beim Einlesen berechnet).
+                    // Gesperrte Kanten kosten unendlich und werden so nie übernommen.
+                    double newDistance = currentNode.getDistance() + weights[edge];
 
                     // Wenn neue Kennzahl kleiner als bisherige
                     if (newDistance < neighbor.getDistance()) {
@@ -62,18 +97,12 @@ public class DijkstraAlgorithm {
                         queue.add(neighbor);
                     }
                 }
-            }
+            });
         }
 
         calculateOptimalPath(endName);
         markShortestPath();
-    }
-
-    private double calculateDistance(Knoten from, Knoten to) {
-        // Euklidische Distanz -> Berechnet die Luftlinienentfernung zwischen zwei Knoten
-        int dx = to.getX() - from.getX();
-        int dy = to.getY() - from.getY();
-        return Math.sqrt(dx * dx + dy * dy);
+        return true;
     }
 
     // Berechnet den optimalen Pfad basierend auf den vorherigen Knoten
@@ -87,12 +116,13 @@ public class DijkstraAlgorithm {
         }
     }
 
-    // Markiert die Knoten des kürzesten Pfads im Graphen
+    // Markiert die Knoten des kürzesten Pfads im Graphen und merkt sie sich für die Anzeige
     private void markShortestPath() {
         for (String nodeName : optimalPath) {
             Knoten node = graph.getNodeByName(nodeName);
             if (node != null) {
                 node.setShortestPath(true);
+                optimalPathNodes.add(node);
             }
         }
     }
@@ -101,6 +131,10 @@ public class DijkstraAlgorithm {
         return optimalPath;
     }
 
+    public List<Knoten> getOptimalPathNodes() {
+        return optimalPathNodes;
+    }
+
     public double getPathDistance() {
         if (optimalPath.isEmpty()) return 0;
         String endNode = optimalPath.get(optimalPath.size() - 1);
@@ -3,14 +3,27 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+// Kartendatei: eine Zeile pro Knoten im Format "A(900, 1100), B, R". Optional legt eine Zeile "Profile: Fahrzeit, LKW"
+// weitere Kostenprofile fest; ein Nachbar kann dann seine Kantenkosten je Profil tragen, z. B. "B[12.5; inf]".
+// Fehlende Werte kosten die Streckenlänge, "inf" sperrt die Kante im Profil. Profil 0 ist immer die Streckenlänge.
+// Ein Profil kann auch später aus einer eigenen Kostendatei mit Zeilen "A B 12.5" (Kante von A nach B) gesetzt werden.
 public class FileReader {
+    private static final String PROFILE_PREFIX = "Profile:";
+    static final Pattern NEIGHBOR_PATTERN = Pattern.compile("([A-Za-z0-9]+)(?:\\[([^\\]]*)\\])?");
+
     // Liest einen Graphen aus einer Datei und erstellt Knoten und Kanten
     public Graph readGraphFromFile(String filePath) {
+        if (filePath.endsWith(".idx")) {
+            return readTiledGraph(filePath);
+        }
+
         Graph graph = new Graph();
         Map<String, String[]> connections = new HashMap<>();
 
@@ -23,6 +36,15 @@ public class FileReader {
                 line = line.trim();
                 if (line.isEmpty()) continue;
 
+                if (line.startsWith(PROFILE_PREFIX)) {
+                    for (String profile : line.substring(PROFILE_PREFIX.length()).split(",")) {
+                        if (!profile.trim().isEmpty()) {
+                            graph.addProfile(profile.trim());
+                        }
+                    }
+                    continue;
+                }
+
                 Matcher matcher = pattern.matcher(line);
                 if (matcher.matches()) {
                     String nodeName = matcher.group(1);
@@ -47,12 +69,13 @@ public class FileReader {
                 Knoten from = graph.getNodeByName(entry.getKey());
                 if (from == null) continue;
 
-                for (String toName : entry.getValue()) {
-                    Knoten to = graph.getNodeByName(toName);
+                for (String neighbor : entry.getValue()) {
+                    Matcher matcher = NEIGHBOR_PATTERN.matcher(neighbor);
+                    Knoten to = matcher.matches() ? graph.getNodeByName(matcher.group(1)) : null;
                     if (to != null) {
-                        graph.addEdge(from, to);
+                        graph.addEdge(from, to, parseWeights(matcher.group(2), from, to, graph.getProfiles().size()));
                     } else {
-                        System.err.println("Knoten nicht gefunden: " + toName);
+                        System.err.println("Knoten nicht gefunden: " + neighbor);
                     }
                 }
             }
@@ -71,4 +94,83 @@ public class FileReader {
         }
         return graph;
     }
+
+    // Liest nur den Index einer gekachelten Karte, die Kacheln werden bei Bedarf nachgeladen
+    private Graph readTiledGraph(String indexPath) {
+        try {
+            return new Graph(new TiledMap(indexPath));
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(null,
+                    "Dateifehler: " + e.getMessage(),
+                    "Fehler",
+                    JOptionPane.ERROR_MESSAGE);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(null,
+                    "Unerwarteter Fehler: " + e.getMessage(),
+                    "Fehler",
+                    JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+        }
+        return new Graph();
+    }
+
+    // Liest eine Kostendatei für ein Profil mit einer Zeile "A B 12.5" (oder "A B inf") je Kante und gibt die Kosten
+    // je Kanten-ID zurück, z. B. für Graph.setProfileWeights. Ungültige Zeilen und unbekannte Kanten werden übersprungen.
+    public Map<Integer, Double> readProfileWeights(Graph graph, String filePath) throws IOException {
+        Map<Integer, Double> weights = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                String[] parts = line.split("\\s+");
+                if (parts.length != 3) {
+                    System.err.println("Ungültiges Zeilenformat: " + line);
+                    continue;
+                }
+                int edge = graph.getEdgeId(parts[0], parts[1]);
+                double weight = parseWeight(parts[2]);
+                if (edge == Knoten.NO_EDGE) {
+                    System.err.println("Kante nicht gefunden: " + parts[0] + " -> " + parts[1]);
+                } else if (weight >= 0) {
+                    weights.put(edge, weight);
+                } else {
+                    System.err.println("Ungültige Kantenkosten: " + parts[0] + " -> " + parts[1] + ": " + parts[2]);
+                }
+            }
+        }
+        return weights;
+    }
+
+    // Liest die Kantenkosten je Profil aus dem Text in eckigen Klammern ("12.5; inf", null ohne Klammern).
+    // Profil 0 und fehlende oder ungültige Werte kosten die Streckenlänge, die hier einmalig berechnet wird.
+    static double[] parseWeights(String weightsText, Knoten from, Knoten to, int profileCount) {
+        double[] weights = new double[profileCount];
+        Arrays.fill(weights, from.distanceTo(to));
+        if (weightsText == null) return weights;
+
+        String[] values = weightsText.split(";");
+        for (int i = 0; i < values.length && i + 1 < profileCount; i++) {
+            String value = values[i].trim();
+            if (value.isEmpty()) continue;
+            double weight = parseWeight(value);
+            if (weight >= 0) {
+                weights[i + 1] = weight;
+            } else {
+                System.err.println("Ungültige Kantenkosten: " + from.getName() + " -> " + to.getName() + ": " + value);
+            }
+        }
+        return weights;
+    }
+
+    // Liest die Kosten einer Kante ("12.5" oder "inf"), ungültige Werte ergeben NaN. Negative Kosten sind für Dijkstra
+    // nicht zulässig, daher übernehmen die Aufrufer nur Werte >= 0.
+    private static double parseWeight(String value) {
+        try {
+            return value.equalsIgnoreCase("inf") ? Double.POSITIVE_INFINITY : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
 }
\ No newline at end of file
@@ -1,38 +1,48 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.geom.AffineTransform;
+import java.awt.event.*;
 import java.awt.geom.Line2D;
-import java.awt.geom.Path2D;
-import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Map;
 
 public class GUI extends JFrame {
+    private static final int MAX_ANIMATION_FRAMES = 50; // große Suchen werden in Schritten animiert, damit die Animation kurz bleibt
+
     private Graph graph;
-    private JComboBox<String> startNodeComboBox;
-    private JComboBox<String> targetNodeComboBox;
+    private JComponent startNodeInput; // Auswahlliste oder bei einer gekachelten Karte ein NodeLookupField
+    private JComponent targetNodeInput;
+    private JComboBox<String> profileComboBox;
+    private JButton loadProfileButton;
     private JButton runAlgorithmButton;
     private JTextArea resultTextArea;
     private GraphPanel graphPanel;
     private DijkstraAlgorithm dijkstraAlgorithm;
-    private ExecutorService executorService;
+    private QueryScheduler queryScheduler;
+    private int currentQueryId; // wird nur im EDT gelesen und geschrieben
 
     public GUI(Graph graph) {
         this.graph = graph;
         this.dijkstraAlgorithm = new DijkstraAlgorithm(graph);
-        this.executorService = Executors.newSingleThreadExecutor();
+        this.queryScheduler = new QueryScheduler();
         initializeUI();
-        updateNodeComboBoxes();
     }
 
     // Setzt das Layout der Benutzeroberfläche zusammen, fügt Steuerelemente wie Buttons und Textfelder hinzu
     private void initializeUI() {
         setTitle("Routenplaner");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        // Hintergrund-Threads beim Schließen beenden, damit sich die Anwendung sauber beendet
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                queryScheduler.shutdown();
+                graphPanel.shutdown();
+            }
+        });
 
         // Layout einrichten
         setLayout(new BorderLayout());
@@ -46,23 +56,30 @@ public class GUI extends JFrame {
         // Startpunkt Auswahl
         JPanel startPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         startPanel.add(new JLabel("Startpunkt:"));
-        startNodeComboBox = new JComboBox<>();
-        for (Knoten node : graph.getNodes()) {
-            startNodeComboBox.addItem(node.getName());
-        }
-        startPanel.add(startNodeComboBox);
+        startNodeInput = createNodeInput();
+        startPanel.add(startNodeInput);
         controlPanel.add(startPanel);
 
         // Zielpunkt Auswahl
         JPanel targetPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         targetPanel.add(new JLabel("Zielpunkt:"));
-        targetNodeComboBox = new JComboBox<>();
-        for (Knoten node : graph.getNodes()) {
-            targetNodeComboBox.addItem(node.getName());
-        }
-        targetPanel.add(targetNodeComboBox);
+        targetNodeInput = createNodeInput();
+        targetPanel.add(targetNodeInput);
         controlPanel.add(targetPanel);
 
+        // Kostenprofil Auswahl; weitere Profile können aus einer Kostendatei geladen oder aktualisiert werden
+        JPanel profilePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        profilePanel.add(new JLabel("Profil:"));
+        profileComboBox = new JComboBox<>();
+        for (String profile : graph.getProfiles()) {
+            profileComboBox.addItem(profile);
+        }
+        profilePanel.add(profileComboBox);
+        loadProfileButton = new JButton("Profil laden...");
+        loadProfileButton.addActionListener(e -> onLoadProfileButtonClicked());
+        profilePanel.add(loadProfileButton);
+        controlPanel.add(profilePanel);
+
         // Algorithmus Start Button
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         runAlgorithmButton = new JButton("Starte Route Berechnung");
@@ -75,6 +92,16 @@ public class GUI extends JFrame {
         buttonPanel.add(runAlgorithmButton);
         controlPanel.add(buttonPanel);
 
+        // Neue Auswahl während einer laufenden Berechnung ersetzt diese sofort
+        ActionListener selectionListener = e -> {
+            if (queryScheduler.isBusy()) {
+                onRunAlgorithmButtonClicked();
+            }
+        };
+        addSelectionListener(startNodeInput, selectionListener);
+        addSelectionListener(targetNodeInput, selectionListener);
+        profileComboBox.addActionListener(selectionListener);
+
         // Ergebnis Textfeld
         JPanel resultPanel = new JPanel(new BorderLayout());
         resultPanel.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
@@ -96,58 +123,105 @@ public class GUI extends JFrame {
         setLocationRelativeTo(null);
         setExtendedState(JFrame.MAXIMIZED_BOTH);
 
-        if (graph.getNodes().isEmpty()) {
+        if (graph.isEmpty()) {
             runAlgorithmButton.setEnabled(false);
+            loadProfileButton.setEnabled(false);
             resultTextArea.setText("Fehler: Keine Knoten geladen!");
         }
     }
 
-    // Aktualisiert die Menüs für die Auswahl von Start- und Zielknoten
-    private void updateNodeComboBoxes() {
-        startNodeComboBox.removeAllItems();
-        targetNodeComboBox.removeAllItems();
-
+    // Auswahl eines Knotens: eine Liste aller Namen, bei einer gekachelten Karte ein Eingabefeld mit Vorschlägen,
+    // damit nicht die Namen aller Knoten geladen werden müssen
+    private JComponent createNodeInput() {
+        if (graph.getTiledMap() != null) {
+            return new NodeLookupField(graph, 12);
+        }
+        JComboBox<String> comboBox = new JComboBox<>();
         for (Knoten node : graph.getNodes()) {
-            startNodeComboBox.addItem(node.getName());
-            targetNodeComboBox.addItem(node.getName());
+            comboBox.addItem(node.getName());
         }
+        return comboBox;
     }
 
-    // Führt die Dijkstra-Berechnung im Hintergrund aus, aktualisiert die Visualisierung und zeigt das Ergebnis an
-    private void onRunAlgorithmButtonClicked() {
-        String startNodeName = (String) startNodeComboBox.getSelectedItem();
-        String targetNodeName = (String) targetNodeComboBox.getSelectedItem();
+    private static void addSelectionListener(JComponent input, ActionListener listener) {
+        if (input instanceof NodeLookupField) {
+            ((NodeLookupField) input).addActionListener(listener);
+        } else {
+            ((JComboBox<?>) input).addActionListener(listener);
+        }
+    }
 
-        if (startNodeName.equals(targetNodeName)) {
-            resultTextArea.setText("Startpunkt und Zielpunkt sind identisch!");
+    private static String getNodeName(JComponent input) {
+        if (input instanceof NodeLookupField) {
+            return ((NodeLookupField) input).getNodeName();
+        }
+        Object selected = ((JComboBox<?>) input).getSelectedItem();
+        return selected == null ? "" : selected.toString();
+    }
+
+    // Führt die Dijkstra-Berechnung im Hintergrund aus, aktualisiert die Visualisierung und zeigt das Ergebnis an.
+    // Eine noch laufende Berechnung wird dabei abgebrochen.
+    private void onRunAlgorithmButtonClicked() {
+        String startNodeName = getNodeName(startNodeInput);
+        String targetNodeName = getNodeName(targetNodeInput);
+        int profile = Math.max(0, profileComboBox.getSelectedIndex());
+        String profileName = profileComboBox.getItemAt(profile);
+
+        int queryId = ++currentQueryId; // Ergebnisse älterer Anfragen werden ab jetzt ignoriert
+
+        String error = null;
+        if (startNodeName.isEmpty() || targetNodeName.isEmpty()) {
+            error = "Bitte Startpunkt und Zielpunkt eingeben!";
+        } else if (startNodeName.equals(targetNodeName)) {
+            error = "Startpunkt und Zielpunkt sind identisch!";
+        }
+        if (error != null) {
+            queryScheduler.cancel();
+            graphPanel.resetAnimation();
+            resultTextArea.setText(error);
             return;
         }
 
         // Visualisierung zurücksetzen, bevor eine neue Berechnung gestartet wird
         graphPanel.resetAnimation();
-
-        // UI-Elemente deaktivieren während der Berechnung
-        runAlgorithmButton.setEnabled(false);
         resultTextArea.setText("Berechnung läuft...");
 
-        // Animation in separatem Thread durchführen
-        executorService.submit(() -> {
+        // Berechnung und Animation in separatem Thread durchführen
+        queryScheduler.submit(() -> {
             try {
-                // Dijkstra ausführen
-                dijkstraAlgorithm.calculateShortestPath(startNodeName, targetNodeName);
-                List<String> optimalPath = dijkstraAlgorithm.getOptimalPath();
+                // Namen erst hier prüfen, bei einer gekachelten Karte muss dafür eine Namensdatei gelesen werden
+                String unknown = !graph.hasNode(startNodeName) ? "Unbekannter Startpunkt: " + startNodeName
+                        : !graph.hasNode(targetNodeName) ? "Unbekannter Zielpunkt: " + targetNodeName : null;
+                if (unknown != null) {
+                    runIfCurrent(queryId, () -> resultTextArea.setText(unknown));
+                    return;
+                }
+
+                // Dijkstra mit dem gewählten Kostenprofil ausführen, Zwischenstand laufend anzeigen
+                dijkstraAlgorithm.setProfile(profile);
+                boolean completed = dijkstraAlgorithm.calculateShortestPath(startNodeName, targetNodeName,
+                        (currentDistance, settledCount) -> runIfCurrent(queryId, () ->
+                                resultTextArea.setText("Berechnung läuft...\n"
+                                        + "Aktuelle Kosten (" + profileName + "): " + String.format("%.2f", currentDistance) + "\n"
+                                        + "Verarbeitete Knoten: " + settledCount)));
+                if (!completed) return;
+
+                // Kopien anlegen, da die nächste Anfrage die Listen des Algorithmus leert
+                List<String> optimalPath = new ArrayList<>(dijkstraAlgorithm.getOptimalPath());
+                List<Knoten> pathNodes = new ArrayList<>(dijkstraAlgorithm.getOptimalPathNodes());
                 double pathDistance = dijkstraAlgorithm.getPathDistance();
+                List<Knoten> visitedNodes = new ArrayList<>(dijkstraAlgorithm.getVisitedNodes());
 
                 // Visualisierung aktualisieren
-                List<Knoten> visitedNodes = dijkstraAlgorithm.getVisitedNodes();
-                for (Knoten node : visitedNodes) {
-                    graphPanel.addVisitedNode(node);
-                    graphPanel.repaint();
+                int step = Math.max(1, (visitedNodes.size() + MAX_ANIMATION_FRAMES - 1) / MAX_ANIMATION_FRAMES);
+                for (int i = 0; i < visitedNodes.size(); i += step) {
+                    List<Knoten> frame = visitedNodes.subList(i, Math.min(visitedNodes.size(), i + step));
+                    runIfCurrent(queryId, () -> graphPanel.addVisitedNodes(frame));
                     Thread.sleep(100); // Animationspause
                 }
 
                 // Ergebnis anzeigen
-                SwingUtilities.invokeLater(() -> {
+                runIfCurrent(queryId, () -> {
                     StringBuilder result = new StringBuilder();
                     result.append("Kürzester Weg von ").append(startNodeName)
                             .append(" nach ").append(targetNodeName).append(":\n");
@@ -163,47 +237,208 @@ public class GUI extends JFrame {
                             }
                         }
                         result.append("\n");
-                        result.append("Entfernung: ").append(String.format("%.2f", pathDistance));
+                        result.append(profileName).append(": ").append(String.format("%.2f", pathDistance)).append("\n");
+                        result.append("Verarbeitete Knoten: ").append(visitedNodes.size());
                     }
 
                     resultTextArea.setText(result.toString());
-                    graphPanel.setOptimalPath(optimalPath);
+                    graphPanel.setOptimalPath(pathNodes);
                     graphPanel.repaint();
-
-                    // UI-Elemente wieder aktivieren
-                    runAlgorithmButton.setEnabled(true);
                 });
 
+            } catch (InterruptedException e) {
+                // Durch eine neuere Anfrage abgebrochen
             } catch (Exception e) {
-                SwingUtilities.invokeLater(() -> {
-                    resultTextArea.setText("Fehler bei der Berechnung: " + e.getMessage());
-                    runAlgorithmButton.setEnabled(true);
-                });
+                runIfCurrent(queryId, () -> resultTextArea.setText("Fehler bei der Berechnung: " + e.getMessage()));
+            }
+        });
+    }
+
+    // Lädt eine Kostendatei ("A B 12.5" je Kante) als Profil mit dem Namen der Datei. Ein vorhandenes Profil wird
+    // aktualisiert, sonst ein neues angelegt; die Kanten der Karte bleiben dabei unverändert.
+    private void onLoadProfileButtonClicked() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Kostendatei auswählen");
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File selectedFile = fileChooser.getSelectedFile();
+        String filePath = selectedFile.getAbsolutePath();
+        String profileName = selectedFile.getName().replaceFirst("\\.[^.]*$", "");
+        if (profileName.equals(Graph.DISTANCE_PROFILE)) {
+            resultTextArea.setText("Das Profil " + Graph.DISTANCE_PROFILE + " kann nicht ersetzt werden!");
+            return;
+        }
+
+        loadProfileButton.setEnabled(false);
+        resultTextArea.setText("Profil " + profileName + " wird geladen...");
+
+        // Im Thread der Anfragen, damit keine Suche gleichzeitig mit dem Graphen arbeitet
+        queryScheduler.execute(() -> {
+            String message;
+            boolean added = false;
+            try {
+                Map<Integer, Double> weights = new FileReader().readProfileWeights(graph, filePath);
+                int profile = graph.getProfiles().indexOf(profileName);
+                if (profile < 0) {
+                    profile = graph.addProfile(profileName);
+                    added = true;
+                }
+                graph.setProfileWeights(profile, weights);
+                message = "Profil " + profileName + (added ? " hinzugefügt" : " aktualisiert") + ": "
+                        + weights.size() + " Kanten";
+            } catch (Exception e) {
+                message = "Fehler beim Laden des Profils: " + e.getMessage();
+            }
+
+            String result = message;
+            boolean addItem = added;
+            SwingUtilities.invokeLater(() -> {
+                if (addItem) {
+                    profileComboBox.addItem(profileName);
+                }
+                loadProfileButton.setEnabled(true);
+                resultTextArea.setText(result);
+            });
+        });
+    }
+
+    // Führt die Aktion im EDT aus, sofern die Anfrage nicht inzwischen durch eine neuere ersetzt wurde
+    private void runIfCurrent(int queryId, Runnable action) {
+        SwingUtilities.invokeLater(() -> {
+            if (queryId == currentQueryId) {
+                action.run();
             }
         });
     }
 
     public class GraphPanel extends JPanel {
+        private static final double ZOOM_STEP = Math.sqrt(2);
+        private static final int MIN_ZOOM_LEVEL = -4;
+        private static final double MAX_CELL_PIXELS = 400; // weiter hineinzoomen zeigt nichts Neues, die Pixelkoordinaten blieben aber nicht mehr im int-Bereich
+
         private Graph graph;
-        private List<String> optimalPath;
-        private List<Knoten> visitedNodes;
+        private List<Knoten> optimalPath;
+        private SearchOverlay visitedNodes;
         private int padding = 50;
+        private TileRenderer tileRenderer;
+
+        // Ansicht: Grundmaßstab (ganze Karte passt ins Fenster), Zoomstufe und Verschiebung in Pixeln
+        private double baseScale;
+        private int zoomLevel;
+        private double viewX;
+        private double viewY;
+        private boolean viewFitted; // true, solange der Benutzer nicht gezoomt oder verschoben hat
+        private Point dragStart;
 
         public GraphPanel(Graph graph) {
             this.graph = graph;
             this.optimalPath = new ArrayList<>();
-            this.visitedNodes = new ArrayList<>();
+            this.tileRenderer = new TileRenderer(graph, padding, this::repaint);
+            this.visitedNodes = new SearchOverlay(graph.getMinX(), graph.getMinY(), graph.getMaxX(), graph.getMaxY(),
+                    tileRenderer.getBaseCellSize());
             setBackground(Color.WHITE);
+            initializeNavigation();
+        }
+
+        // Mausrad zoomt um den Mauszeiger, Ziehen verschiebt die Karte, Doppelklick zeigt wieder die ganze Karte
+        private void initializeNavigation() {
+            MouseAdapter navigation = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) {
+                    dragStart = e.getPoint();
+                }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    if (dragStart == null) return;
+                    viewX -= e.getX() - dragStart.x;
+                    viewY -= e.getY() - dragStart.y;
+                    dragStart = e.getPoint();
+                    viewFitted = false;
+                    repaint();
+                }
+
+                @Override
+                public void mouseReleased(MouseEvent e) {
+                    dragStart = null;
+                }
+
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        fitToWindow();
+                        repaint();
+                    }
+                }
+
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) {
+                    zoom(e.getWheelRotation() < 0 ? 1 : -1, e.getX(), e.getY());
+                }
+            };
+            addMouseListener(navigation);
+            addMouseMotionListener(navigation);
+            addMouseWheelListener(navigation);
+
+            addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    if (viewFitted) {
+                        fitToWindow();
+                    }
+                }
+            });
+        }
+
+        // Setzt den Grundmaßstab so, dass die ganze Karte ins Fenster passt
+        private void fitToWindow() {
+            int graphWidth = Math.max(1, graph.getMaxX() - graph.getMinX());
+            int graphHeight = Math.max(1, graph.getMaxY() - graph.getMinY());
+
+            double scaleX = (getWidth() - 2 * padding) / (double) graphWidth;
+            double scaleY = (getHeight() - 2 * padding) / (double) graphHeight;
+            baseScale = Math.max(Double.MIN_NORMAL, Math.min(scaleX, scaleY));
+            zoomLevel = 0;
+            viewX = 0;
+            viewY = 0;
+            viewFitted = true;
+
+            tileRenderer.clear();
+            tileRenderer.setCurrentLevel(zoomLevel);
+        }
+
+        // Ändert die Zoomstufe, der Kartenpunkt unter (anchorX, anchorY) bleibt dabei an seiner Stelle
+        private void zoom(int steps, int anchorX, int anchorY) {
+            int newLevel = Math.max(MIN_ZOOM_LEVEL, zoomLevel + steps);
+            if (newLevel == zoomLevel) return;
+
+            // Hineinzoomen endet, sobald der mittlere Knotenabstand mehr als MAX_CELL_PIXELS einnimmt
+            double newScale = baseScale * Math.pow(ZOOM_STEP, newLevel);
+            if (newLevel > zoomLevel && tileRenderer.getBaseCellSize() * newScale > MAX_CELL_PIXELS) return;
+
+            double factor = Math.pow(ZOOM_STEP, newLevel - zoomLevel);
+            viewX = (anchorX + viewX - padding) * factor + padding - anchorX;
+            viewY = (anchorY + viewY - padding) * factor + padding - anchorY;
+            zoomLevel = newLevel;
+            viewFitted = false;
+
+            tileRenderer.setCurrentLevel(zoomLevel);
+            repaint();
+        }
+
+        private double getScale() {
+            return baseScale * Math.pow(ZOOM_STEP, zoomLevel);
         }
 
         // Setzt den optimalen Pfad (aus der Dijkstra-Berechnung) für die Visualisierung
-        public void setOptimalPath(List<String> optimalPath) {
+        public void setOptimalPath(List<Knoten> optimalPath) {
             this.optimalPath = new ArrayList<>(optimalPath); // Eine neue Liste erstellen, um Referenzprobleme zu vermeiden
         }
 
-        // Fügt einen Knoten zur Liste der besuchten Knoten hinzu, um ihn später zu visualisieren
-        public void addVisitedNode(Knoten node) {
-            this.visitedNodes.add(node);
+        // Fügt Knoten zur Liste der besuchten Knoten hinzu und zeichnet sie
+        public void addVisitedNodes(List<Knoten> nodes) {
+            this.visitedNodes.addAll(nodes);
+            repaint();
         }
 
         // Setzt die Animation zurück
@@ -213,156 +448,123 @@ public class GUI extends JFrame {
             repaint();
         }
 
-        // Überschreibt die paintComponent-Methode, um den Graphen zu zeichnen
+        // Beendet die Hintergrund-Threads für die Kacheln
+        public void shutdown() {
+            tileRenderer.shutdown();
+        }
+
+        // Überschreibt die paintComponent-Methode: zeichnet die sichtbaren Kacheln und darüber den Suchfortschritt
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
             Graphics2D g2d = (Graphics2D) g;
             g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-            if (graph.getNodes().isEmpty()) return;
+            if (graph.isEmpty()) return;
+            if (baseScale == 0) fitToWindow();
+
+            double scale = getScale();
+            int offsetX = (int) Math.floor(viewX);
+            int offsetY = (int) Math.floor(viewY);
+            int tile = TileRenderer.TILE_SIZE;
+
+            // Sichtbare Kacheln plus einen Rand zum Vorausladen beim Verschieben
+            int tx0 = Math.floorDiv(offsetX, tile) - 1;
+            int ty0 = Math.floorDiv(offsetY, tile) - 1;
+            int tx1 = Math.floorDiv(offsetX + getWidth(), tile) + 1;
+            int ty1 = Math.floorDiv(offsetY + getHeight(), tile) + 1;
+
+            tileRenderer.setVisibleTiles(tx0, ty0, tx1, ty1);
+            for (int tx = tx0; tx <= tx1; tx++) {
+                for (int ty = ty0; ty <= ty1; ty++) {
+                    BufferedImage image = tileRenderer.getTile(zoomLevel, scale, tx, ty);
+                    if (image != null) {
+                        g2d.drawImage(image, tx * tile - offsetX, ty * tile - offsetY, null);
+                    }
+                }
+            }
 
-            // Koordinatentransformation - mit korrekter Behandlung negativer Werte
-            int minX = graph.getMinX();
-            int maxX = graph.getMaxX();
-            int minY = graph.getMinY();
-            int maxY = graph.getMaxY();
+            g2d.translate(-offsetX, -offsetY);
+            paintSearchOverlay(g2d, scale, new Rectangle(offsetX, offsetY, getWidth(), getHeight()));
+            g2d.translate(offsetX, offsetY);
+        }
 
-            // Die tatsächliche Breite und Höhe berücksichtigen, nicht die Differenz
-            // Dies ist wichtig für den Umgang mit negativen Koordinaten
-            int graphWidth = maxX - minX;
-            int graphHeight = maxY - minY;
+        // Zeichnet besuchte Kanten/Knoten (rot) und den optimalen Pfad (grün) über die Kacheln.
+        // Besuchte Knoten werden über ihr Raster abgefragt, damit nur der sichtbare Ausschnitt Arbeit kostet.
+        private void paintSearchOverlay(Graphics2D g2d, double scale, Rectangle visible) {
+            boolean fullDetail = tileRenderer.isFullDetail(scale);
+            boolean details = tileRenderer.showsDetails(scale);
+            int nodeSize = tileRenderer.getNodeSize(scale);
+            Rectangle bounds = new Rectangle(visible);
+            bounds.grow(TileRenderer.TILE_SIZE, TileRenderer.TILE_SIZE);
+
+            // Sichtbarer Ausschnitt in Kartenkoordinaten
+            double minX = graph.getMinX() + (bounds.getMinX() - padding) / scale;
+            double minY = graph.getMinY() + (bounds.getMinY() - padding) / scale;
+            double maxX = graph.getMinX() + (bounds.getMaxX() - padding) / scale;
+            double maxY = graph.getMinY() + (bounds.getMaxY() - padding) / scale;
+
+            // Besuchte Kanten: aufeinanderfolgende besuchte Knoten, die direkt verbunden sind
+            g2d.setColor(Color.RED);
+            g2d.setStroke(new BasicStroke(2));
+            if (fullDetail) {
+                visitedNodes.forEachEdge(minX, minY, maxX, maxY,
+                        i -> paintEdge(g2d, scale, bounds, visitedNodes.get(i), visitedNodes.get(i + 1), details));
+            }
 
-            double scaleX = (getWidth() - 2 * padding) / (double) graphWidth;
-            double scaleY = (getHeight() - 2 * padding) / (double) graphHeight;
-            double scale = Math.min(scaleX, scaleY);
-
-            AffineTransform transform = new AffineTransform();
-            transform.translate(padding, padding);
-            transform.scale(scale, scale);
-            transform.translate(-minX, -minY);
-
-            // Zeichne Kanten
-            for (Knoten node : graph.getNodes()) {
-                Point2D.Double p1 = new Point2D.Double(node.getX(), node.getY());
-
-                for (Knoten neighbor : node.getNeighbors()) {
-                    Point2D.Double p2 = new Point2D.Double(neighbor.getX(), neighbor.getY());
-
-                    // Prüfe, ob es eine Zweiweg-Straße ist
-                    boolean isTwoWay = neighbor.getNeighbors().contains(node);
-
-                    // Überprüfe, ob die Kante Teil des besuchten Pfades ist
-                    boolean isVisitedEdge = false;
-                    for (int i = 0; i < visitedNodes.size() - 1; i++) {
-                        Knoten current = visitedNodes.get(i);
-                        Knoten next = visitedNodes.get(i + 1);
-                        if (current == node && next == neighbor) {
-                            isVisitedEdge = true;
-                            break;
-                        }
-                    }
+            // Kanten des optimalen Pfades
+            g2d.setColor(Color.GREEN);
+            g2d.setStroke(new BasicStroke(3));
+            for (int i = 0; i < optimalPath.size() - 1; i++) {
+                paintEdge(g2d, scale, bounds, optimalPath.get(i), optimalPath.get(i + 1), details);
+            }
 
-                    // Überprüfe, ob die Kante Teil des optimalen Pfades ist
-                    boolean isOptimalEdge = false;
-                    for (int i = 0; i < optimalPath.size() - 1; i++) {
-                        String currentName = optimalPath.get(i);
-                        String nextName = optimalPath.get(i + 1);
-                        if (node.getName().equals(currentName) && neighbor.getName().equals(nextName)) {
-                            isOptimalEdge = true;
-                            break;
-                        }
-                    }
+            // Besuchte Knoten; in der Übersicht ein Punkt je Rasterzelle wie bei den Clustern der Kacheln
+            g2d.setStroke(new BasicStroke(1));
+            g2d.setFont(new Font("Arial", Font.BOLD, 14));
+            if (fullDetail) {
+                visitedNodes.forEachNode(minX, minY, maxX, maxY,
+                        i -> paintNode(g2d, scale, bounds, visitedNodes.get(i), Color.RED, nodeSize, details));
+            } else {
+                visitedNodes.forEachOverviewNode(minX, minY, maxX, maxY, TileRenderer.CLUSTER_PIXELS / scale,
+                        node -> paintNode(g2d, scale, bounds, node, Color.RED, TileRenderer.CLUSTER_NODE_SIZE, false));
+            }
+            for (Knoten node : optimalPath) {
+                paintNode(g2d, scale, bounds, node, Color.GREEN, nodeSize, details);
+            }
+        }
 
-                    // Farbe basierend auf Status der Kante festlegen
-                    if (isOptimalEdge) {
-                        g2d.setColor(Color.GREEN);
-                        g2d.setStroke(new BasicStroke(3));
-                    } else if (isVisitedEdge) {
-                        g2d.setColor(Color.RED);
-                        g2d.setStroke(new BasicStroke(2));
-                    } else {
-                        g2d.setColor(Color.BLACK);
-                        g2d.setStroke(new BasicStroke(1));
-                    }
+        private void paintEdge(Graphics2D g2d, double scale, Rectangle bounds, Knoten from, Knoten to, boolean details) {
+            if (!from.getNeighbors().contains(to)) return;
 
-                    // Kante zeichnen
-                    Line2D.Double line = new Line2D.Double(p1, p2);
-                    g2d.draw(transform.createTransformedShape(line));
+            double x1 = tileRenderer.toPixelX(from.getX(), scale), y1 = tileRenderer.toPixelY(from.getY(), scale);
+            double x2 = tileRenderer.toPixelX(to.getX(), scale), y2 = tileRenderer.toPixelY(to.getY(), scale);
+            Line2D.Double line = new Line2D.Double(x1, y1, x2, y2);
+            if (!line.intersects(bounds)) return;
 
-                    // Pfeile zeichnen
-                    drawArrow(g2d, transform, p1, p2);
-                    if (isTwoWay) {
-                        drawArrow(g2d, transform, p2, p1);
-                    }
+            g2d.draw(line);
+            if (details) {
+                TileRenderer.drawArrow(g2d, x1, y1, x2, y2);
+                if (to.getNeighbors().contains(from)) {
+                    TileRenderer.drawArrow(g2d, x2, y2, x1, y1);
                 }
             }
+        }
 
-            // Zeichne Knoten
-            g2d.setStroke(new BasicStroke(1));
-            for (Knoten node : graph.getNodes()) {
-                Point2D.Double p = new Point2D.Double(node.getX(), node.getY());
-                Point2D transformed = transform.transform(p, null);
-
-                // Knoten basierend auf Status einfärben
-                if (optimalPath.contains(node.getName())) {
-                    g2d.setColor(Color.GREEN);
-                } else if (visitedNodes.contains(node)) {
-                    g2d.setColor(Color.RED);
-                } else {
-                    g2d.setColor(Color.YELLOW);
-                }
+        private void paintNode(Graphics2D g2d, double scale, Rectangle bounds, Knoten node, Color color, int nodeSize, boolean details) {
+            int x = (int) tileRenderer.toPixelX(node.getX(), scale);
+            int y = (int) tileRenderer.toPixelY(node.getY(), scale);
+            if (!bounds.contains(x, y)) return;
 
-                int nodeSize = 20;
-                g2d.fillOval((int) transformed.getX() - nodeSize/2,
-                        (int) transformed.getY() - nodeSize/2,
-                        nodeSize, nodeSize);
+            g2d.setColor(color);
+            g2d.fillOval(x - nodeSize / 2, y - nodeSize / 2, nodeSize, nodeSize);
 
-                // Knotenname
+            // Knotenname
+            if (details) {
                 g2d.setColor(Color.BLACK);
-                g2d.setFont(new Font("Arial", Font.BOLD, 14));
                 FontMetrics fm = g2d.getFontMetrics();
-                g2d.drawString(node.getName(),
-                        (int) transformed.getX() - fm.stringWidth(node.getName()) / 2,
-                        (int) transformed.getY() + 5);
+                g2d.drawString(node.getName(), x - fm.stringWidth(node.getName()) / 2, y + 5);
             }
         }
-
-        // Zeichnet einen Pfeil, der den Übergang von einem Knoten zum anderen darstellt
-        private void drawArrow(Graphics2D g2d, AffineTransform transform, Point2D.Double from, Point2D.Double to) {
-            double dx = to.x - from.x;
-            double dy = to.y - from.y;
-            double length = Math.sqrt(dx * dx + dy * dy);
-            if (length == 0) return; // Vermeide Division durch Null
-
-            // Normalisierte Richtung
-            double unitDx = dx / length;
-            double unitDy = dy / length;
-
-            // Pfeilgröße anpassen (unabhängig vom Zoom)
-            double arrowSize = 10 / transform.getScaleX();
-            double arrowAngle = Math.PI / 6; // 30 Grad Winkel
-
-            // Position der Pfeilspitze (leicht vor dem Endpunkt)
-            double offset = 15 / transform.getScaleX();
-            double tipX = to.x - unitDx * offset;
-            double tipY = to.y - unitDy * offset;
-
-            // Berechnung der Pfeilspitzen
-            double angle = Math.atan2(dy, dx);
-            double x1 = tipX - arrowSize * Math.cos(angle - arrowAngle);
-            double y1 = tipY - arrowSize * Math.sin(angle - arrowAngle);
-            double x2 = tipX - arrowSize * Math.cos(angle + arrowAngle);
-            double y2 = tipY - arrowSize * Math.sin(angle + arrowAngle);
-
-            // Pfeil zeichnen
-            Path2D.Double arrow = new Path2D.Double();
-            arrow.moveTo(tipX, tipY);
-            arrow.lineTo(x1, y1);
-            arrow.lineTo(x2, y2);
-            arrow.closePath();
-
-            g2d.fill(transform.createTransformedShape(arrow));
-        }
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,46 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class Graph {
+    public static final String DISTANCE_PROFILE = "Entfernung"; // Profil 0: Kosten einer Kante sind ihre Streckenlänge
+
     private List<Knoten> nodes;
     private Map<String, Knoten> nodeMap; // schnell einen Knoten anhand seines Namens finden (Schnellzugriffs-Tabelle)
+    private TiledMap tiledMap; // null, wenn die Karte vollständig geladen ist
+    private List<String> profiles; // Namen der Kostenprofile, der Index entspricht dem Index in profileWeights
+    private List<double[]> profileWeights; // Kosten je Profil als ein Array über alle Kanten, Index = Kanten-ID
+    private int edgeCount;
 
     // Initialisiert eine neue Instanz des Graphen mit einer leeren Knotenliste und einer leeren Schnellzugriffs-Tabelle
     public Graph() {
         this.nodes = new ArrayList<>();
         this.nodeMap = new HashMap<>();
+        this.profiles = new ArrayList<>();
+        this.profiles.add(DISTANCE_PROFILE);
+        this.profileWeights = new ArrayList<>();
+        this.profileWeights.add(new double[0]);
+    }
+
+    // Initialisiert einen Graphen, dessen Knoten kachelweise bei Bedarf aus einer gekachelten Karte geladen werden
+    public Graph(TiledMap tiledMap) {
+        this();
+        this.tiledMap = tiledMap;
+        this.profiles = tiledMap.getProfiles();
+        tiledMap.attach(this);
+
+        // Die Kanten-IDs stehen in der Indexdatei fest; Kosten sind bis zum Laden ihrer Kachel unbekannt (NaN)
+        this.edgeCount = tiledMap.getEdgeCount();
+        this.profileWeights = new ArrayList<>();
+        for (int profile = 0; profile < profiles.size(); profile++) {
+            double[] weights = new double[edgeCount];
+            Arrays.fill(weights, Double.NaN);
+            profileWeights.add(weights);
+        }
     }
 
     // Fügt einen Knoten zum Graphen hinzu und speichert ihn in der Schnellzugriffs-Tabelle
@@ -19,21 +49,143 @@ public class Graph {
         nodeMap.put(node.getName(), node);
     }
 
-    // Fügt eine Kante zwischen den Knoten a und b hinzu
-    public void addEdge(Knoten a, Knoten b) {
-        a.addNeighbor(b);
+    // Entfernt Knoten (z. B. einer verdrängten Kachel) aus dem Graphen
+    public void removeNodes(Set<Knoten> removed) {
+        nodes.removeAll(removed);
+        for (Knoten node : removed) {
+            nodeMap.remove(node.getName());
+        }
+    }
+
+    // Fügt eine Kante zwischen den Knoten a und b mit den Kosten je Profil hinzu; sie erhält die nächste freie Kanten-ID.
+    // Bei einer gekachelten Karte stammen die Kanten-IDs aus den Kacheln, dort wird diese Methode nicht verwendet.
+    public synchronized void addEdge(Knoten a, Knoten b, double[] weights) {
+        if (a.getNeighbors().contains(b)) return;
+
+        int edge = edgeCount++;
+        for (int profile = 0; profile < profileWeights.size(); profile++) {
+            double[] profileArray = profileWeights.get(profile);
+            if (edge >= profileArray.length) {
+                profileArray = Arrays.copyOf(profileArray, Math.max(16, profileArray.length * 2));
+                profileWeights.set(profile, profileArray);
+            }
+            profileArray[edge] = weights[profile];
+        }
+        a.addNeighbor(b, edge);
+    }
+
+    // Übernimmt die Kosten einer Kante aus einer gerade geladenen Kachel für alle Profile, deren Kosten für diese Kante
+    // noch unbekannt sind. Durch setProfileWeights geänderte Kosten bleiben so auch nach dem Neuladen erhalten.
+    synchronized void loadEdgeWeights(int edge, double[] weights) {
+        for (int profile = 0; profile < profileWeights.size(); profile++) {
+            double[] profileArray = profileWeights.get(profile);
+            if (Double.isNaN(profileArray[edge])) {
+                profileArray[edge] = weights[profile];
+            }
+        }
+    }
+
+    // Fügt ein weiteres Kostenprofil hinzu und gibt seinen Index zurück; bis zum Setzen anderer Kosten kostet jede Kante
+    // ihre Streckenlänge
+    public synchronized int addProfile(String name) {
+        profiles.add(name);
+        profileWeights.add(profileWeights.get(0).clone());
+        return profiles.size() - 1;
+    }
+
+    // Ersetzt die Kosten der angegebenen Kanten (Kanten-ID -> Kosten) in einem Profil, alle übrigen Kanten behalten ihre
+    // Kosten. Das Profil wird als neues Array in einem Schritt eingesetzt, eine laufende Suche rechnet mit dem alten weiter.
+    public synchronized void setProfileWeights(int profile, Map<Integer, Double> weights) {
+        if (profile <= 0 || profile >= profiles.size()) {
+            throw new IllegalArgumentException("Ungültiges Profil: " + profile);
+        }
+        double[] profileArray = profileWeights.get(profile).clone();
+        for (Map.Entry<Integer, Double> entry : weights.entrySet()) {
+            profileArray[entry.getKey()] = entry.getValue();
+        }
+        profileWeights.set(profile, profileArray);
+    }
+
+    // Gibt die Kosten aller Kanten im Profil zurück (Index = Kanten-ID); das Array darf nicht verändert werden
+    public synchronized double[] getProfileWeights(int profile) {
+        return profileWeights.get(profile);
+    }
+
+    // Gibt die ID der Kante von from nach to zurück (Knoten.NO_EDGE, wenn es sie nicht gibt);
+    // bei einer gekachelten Karte wird dafür die Kachel von from geladen
+    public int getEdgeId(String from, String to) {
+        if (tiledMap != null) return tiledMap.findEdge(from, to);
+        Knoten node = nodeMap.get(from);
+        return node == null ? Knoten.NO_EDGE : node.getEdgeId(to);
+    }
+
+    // Gibt die Anzahl aller Kanten der Karte zurück, auch der noch nicht geladenen
+    public int getEdgeCount() {
+        return edgeCount;
     }
 
+    // Gibt die Namen der Kostenprofile zurück, Profil 0 ist immer die Streckenlänge
+    public List<String> getProfiles() {
+        return profiles;
+    }
+
+    // Gibt die geladenen Knoten zurück; bei einer gekachelten Karte nur die Knoten der Kacheln im Speicher
     public List<Knoten> getNodes() {
         return nodes;
     }
 
+    // Gibt den Knoten mit diesem Namen zurück; bei einer gekachelten Karte wird seine Kachel bei Bedarf geladen
     public Knoten getNodeByName(String name) {
+        if (tiledMap != null) return tiledMap.loadNode(name);
         return nodeMap.get(name);
     }
 
+    // Gibt den Knoten nur zurück, wenn er bereits geladen ist
+    public Knoten getLoadedNode(String name) {
+        return nodeMap.get(name);
+    }
+
+    // Lädt die Kacheln des Knotens und seiner Nachbarn, bevor eine Suche die Nachbarn betrachtet
+    public void loadNeighbors(Knoten node) {
+        if (tiledMap != null) {
+            tiledMap.loadNeighbors(node);
+        }
+    }
+
+    // Gibt an, ob die Karte einen Knoten mit diesem Namen enthält, ohne bei einer gekachelten Karte seine Kachel zu laden
+    public boolean hasNode(String name) {
+        if (tiledMap != null) return tiledMap.containsNode(name);
+        return nodeMap.containsKey(name);
+    }
+
+    // Gibt bis zu limit Knotennamen in alphabetischer Reihenfolge zurück, die mit dem Präfix beginnen (z. B. für Vorschläge bei der Eingabe)
+    public List<String> findNodeNames(String prefix, int limit) {
+        if (tiledMap != null) return tiledMap.findNodeNames(prefix, limit);
+        return nodeMap.keySet().stream()
+                .filter(name -> name.startsWith(prefix))
+                .sorted()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    // Gibt die Anzahl aller Knoten der Karte zurück, auch der noch nicht geladenen
+    public int getNodeCount() {
+        return tiledMap != null ? tiledMap.getNodeCount() : nodes.size();
+    }
+
+    public boolean isEmpty() {
+        return getNodeCount() == 0;
+    }
+
+    public TiledMap getTiledMap() {
+        return tiledMap;
+    }
+
     // Setzt alle Knoten im Graphen zurück (Entfernt Distanzen, Vorgängerknoten, markiert sie als nicht verarbeitet und löscht den kürzesten Pfad)
-    public void reset() {
+    public synchronized void reset() {
+        if (tiledMap != null) {
+            tiledMap.startQuery();
+        }
         for (Knoten node : nodes) {
             node.setDistance(Double.POSITIVE_INFINITY);
             node.setPrevious(null);
@@ -44,24 +196,28 @@ public class Graph {
 
     // Gibt den minimalen x-Wert aller Knoten zurück
     public int getMinX() {
+        if (tiledMap != null) return tiledMap.getMinX();
         if (nodes.isEmpty()) return 0;
         return nodes.stream().mapToInt(Knoten::getX).min().getAsInt();
     }
 
     // Gibt den maximalen x-Wert aller Knoten zurück
     public int getMaxX() {
+        if (tiledMap != null) return tiledMap.getMaxX();
         if (nodes.isEmpty()) return 0;
         return nodes.stream().mapToInt(Knoten::getX).max().getAsInt();
     }
 
     // Gibt den minimalen y-Wert aller Knoten zurück
     public int getMinY() {
+        if (tiledMap != null) return tiledMap.getMinY();
         if (nodes.isEmpty()) return 0;
         return nodes.stream().mapToInt(Knoten::getY).min().getAsInt();
     }
 
     // Gibt den maximalen y-Wert aller Knoten zurück
     public int getMaxY() {
+        if (tiledMap != null) return tiledMap.getMaxY();
         if (nodes.isEmpty()) return 0;
         return nodes.stream().mapToInt(Knoten::getY).max().getAsInt();
     }
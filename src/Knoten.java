@@ -1,11 +1,16 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class Knoten {
+    // Kante ohne Kosten im Graphen, z. B. zwischen den Kacheln der Übersicht einer gekachelten Karte (nur zur Anzeige)
+    public static final int NO_EDGE = -1;
+
     private String name;
     private int x;
     private int y;
-    private List<Knoten> neighbors;
+    private volatile Adjacency adjacency;
     private double distance;
     private Knoten previous;
     private boolean processed;
@@ -16,22 +21,80 @@ public class Knoten {
         this.name = name;
         this.x = x;
         this.y = y;
-        this.neighbors = new ArrayList<>();
+        this.adjacency = new Adjacency(new ArrayList<>(), new int[0]);
         this.distance = Double.POSITIVE_INFINITY;
         this.previous = null;
         this.processed = false;
         this.shortestPath = false;
     }
 
-    // Fügt dem Knoten einen Nachbarn hinzu, falls dieser noch nicht vorhanden ist (verhindert doppelte Nachbarn)
-    public void addNeighbor(Knoten neighbor) {
-        if (!neighbors.contains(neighbor)) {
+    // Nachbarn und die IDs der Kanten zu ihnen in parallelen Listen; die Kosten je Profil stehen im Graphen unter der ID.
+    // Ein Stand wird nach dem Einsetzen nicht mehr verändert, Änderungen setzen immer einen neuen, vollständigen Stand ein.
+    // So sieht ein anderer Thread nie halb gefüllte Listen oder Nachbarn und Kanten verschiedener Stände.
+    private static class Adjacency {
+        final List<Knoten> neighbors;
+        final int[] edgeIds;
+
+        Adjacency(List<Knoten> neighbors, int[] edgeIds) {
+            this.neighbors = Collections.unmodifiableList(neighbors);
+            this.edgeIds = edgeIds;
+        }
+    }
+
+    // Wird für jede Kante mit dem Nachbarn und der ID der Kante aufgerufen
+    public interface EdgeAction {
+        void accept(Knoten neighbor, int edgeId);
+    }
+
+    // Fügt einen Nachbarn über die Kante mit dieser ID hinzu, falls dieser noch nicht vorhanden ist (verhindert doppelte Nachbarn)
+    public void addNeighbor(Knoten neighbor, int edgeId) {
+        Adjacency current = adjacency;
+        if (!current.neighbors.contains(neighbor)) {
+            List<Knoten> neighbors = new ArrayList<>(current.neighbors);
             neighbors.add(neighbor);
+            int[] edgeIds = Arrays.copyOf(current.edgeIds, current.edgeIds.length + 1);
+            edgeIds[edgeIds.length - 1] = edgeId;
+            this.adjacency = new Adjacency(neighbors, edgeIds);
         }
     }
 
+    // Ersetzt alle Kanten in einem Schritt durch die fertig aufgebauten Listen (z. B. beim Laden einer Kachel)
+    public void setEdges(List<Knoten> neighbors, int[] edgeIds) {
+        this.adjacency = new Adjacency(new ArrayList<>(neighbors), edgeIds.clone());
+    }
+
+    // Entfernt alle Nachbarn; Threads, die gerade über den alten Stand iterieren, werden dabei nicht gestört
+    public void clearNeighbors() {
+        this.adjacency = new Adjacency(new ArrayList<>(), new int[0]);
+    }
+
     public List<Knoten> getNeighbors() {
-        return neighbors;
+        return adjacency.neighbors;
+    }
+
+    // Gibt die ID der Kante zum Nachbarn mit diesem Namen zurück (NO_EDGE, wenn es keine solche Kante gibt)
+    public int getEdgeId(String neighborName) {
+        Adjacency current = adjacency;
+        for (int i = 0; i < current.neighbors.size(); i++) {
+            if (current.neighbors.get(i).getName().equals(neighborName)) return current.edgeIds[i];
+        }
+        return NO_EDGE;
+    }
+
+    // Ruft die Aktion für jede Kante auf. Nachbar und Kante stammen immer aus demselben Stand, auch wenn
+    // die Nachbarn währenddessen ersetzt werden.
+    public void forEachEdge(EdgeAction action) {
+        Adjacency current = adjacency;
+        for (int i = 0; i < current.neighbors.size(); i++) {
+            action.accept(current.neighbors.get(i), current.edgeIds[i]);
+        }
+    }
+
+    // Euklidische Distanz -> Luftlinienentfernung zu einem anderen Knoten
+    public double distanceTo(Knoten other) {
+        int dx = other.x - x;
+        int dy = other.y - y;
+        return Math.sqrt(dx * dx + dy * dy);
     }
 
     public double getDistance() {
@@ -24,7 +24,7 @@ public class Main {
                 Graph graph = fileReader.readGraphFromFile(filePath);
 
                 // Falls der Graph keine Knoten enthält, Fehlermeldung anzeigen
-                if (graph.getNodes().isEmpty()) {
+                if (graph.isEmpty()) {
                     JOptionPane.showMessageDialog(null,
                             "Fehler: Die Datei enthält keine gültigen Knoten!",
                             "Fehler",
@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+// Eine Detailstufe der Karte: Punkte und Kanten als Arrays, räumlich in ein Raster aus Zellen einsortiert.
+// Die volle Detailstufe enthält die echten Knoten, gröbere Stufen fassen alle Punkte einer Zelle zu einem Cluster zusammen.
+public class MapLayer {
+    private final double cellSize;
+    private final double originX;
+    private final double originY;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] weights; // Anzahl der echten Knoten, die ein Punkt repräsentiert
+    private final String[] labels; // null bei Clustern
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final boolean[] twoWay;
+    private final int columns;
+    private final int rows;
+    // Zellindex im CSR-Format: Einträge der Zelle c liegen in items[start[c]] bis items[start[c + 1] - 1]
+    private final int[] nodeStart;
+    private final int[] nodeItems;
+    private final int[] edgeStart;
+    private final int[] edgeItems;
+
+    private MapLayer(double cellSize, double[] xs, double[] ys, int[] weights,
+                     String[] labels, int[] edgeFrom, int[] edgeTo, boolean[] twoWay) {
+        this.cellSize = cellSize;
+        this.originX = xs.length == 0 ? 0 : Arrays.stream(xs).min().getAsDouble();
+        this.originY = ys.length == 0 ? 0 : Arrays.stream(ys).min().getAsDouble();
+        this.xs = xs;
+        this.ys = ys;
+        this.weights = weights;
+        this.labels = labels;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+        this.twoWay = twoWay;
+
+        int maxColumn = 0, maxRow = 0;
+        for (int i = 0; i < xs.length; i++) {
+            maxColumn = Math.max(maxColumn, cell(xs[i], originX, cellSize));
+            maxRow = Math.max(maxRow, cell(ys[i], originY, cellSize));
+        }
+        this.columns = maxColumn + 1;
+        this.rows = maxRow + 1;
+
+        this.nodeStart = new int[columns * rows + 1];
+        this.nodeItems = new int[xs.length];
+        indexNodes();
+
+        this.edgeStart = new int[columns * rows + 1];
+        int[] counts = new int[columns * rows];
+        forEachEdgeCell((e, c) -> counts[c]++);
+        this.edgeItems = new int[prefixSums(counts, edgeStart)];
+        forEachEdgeCell((e, c) -> edgeItems[edgeStart[c] + --counts[c]] = e);
+    }
+
+    // Erstellt die volle Detailstufe aus dem Graphen (Zweiweg-Straßen werden nur einmal gespeichert)
+    public static MapLayer fromGraph(Graph graph, double cellSize) {
+        return fromNodes(graph.getNodes(), cellSize);
+    }
+
+    // Erstellt eine volle Detailstufe aus einer Knotenmenge. Nachbarn außerhalb der Menge werden als
+    // Punkte ohne Namen übernommen, damit Kanten über den Rand der Menge hinaus vollständig gezeichnet werden.
+    public static MapLayer fromNodes(List<Knoten> nodes, double cellSize) {
+        List<Knoten> points = new ArrayList<>(nodes);
+        Map<Knoten, Integer> indices = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); i++) {
+            indices.put(nodes.get(i), i);
+        }
+        for (Knoten node : nodes) {
+            for (Knoten neighbor : node.getNeighbors()) {
+                if (!indices.containsKey(neighbor)) {
+                    indices.put(neighbor, points.size());
+                    points.add(neighbor);
+                }
+            }
+        }
+
+        int n = nodes.size();
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        int[] weights = new int[points.size()];
+        String[] labels = new String[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            Knoten point = points.get(i);
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+            weights[i] = 1;
+            labels[i] = i < n ? point.getName() : null;
+        }
+
+        int edgeCount = 0;
+        int[] edgeFrom = new int[n];
+        int[] edgeTo = new int[n];
+        boolean[] twoWay = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Knoten node = nodes.get(i);
+            for (Knoten neighbor : node.getNeighbors()) {
+                int j = indices.get(neighbor);
+                boolean isTwoWay = neighbor.getNeighbors().contains(node);
+                if (isTwoWay && j < i) continue; // Rückrichtung wurde bereits erfasst
+
+                if (edgeCount == edgeFrom.length) {
+                    int capacity = Math.max(16, edgeCount * 2);
+                    edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                    edgeTo = Arrays.copyOf(edgeTo, capacity);
+                    twoWay = Arrays.copyOf(twoWay, capacity);
+                }
+                edgeFrom[edgeCount] = i;
+                edgeTo[edgeCount] = j;
+                twoWay[edgeCount] = isTwoWay;
+                edgeCount++;
+            }
+        }
+        edgeFrom = Arrays.copyOf(edgeFrom, edgeCount);
+        edgeTo = Arrays.copyOf(edgeTo, edgeCount);
+        twoWay = Arrays.copyOf(twoWay, edgeCount);
+
+        return new MapLayer(cellSize, xs, ys, weights, labels, edgeFrom, edgeTo, twoWay);
+    }
+
+    // Fasst alle Punkte einer Rasterzelle doppelter Größe zu einem Cluster (gewichteter Schwerpunkt) zusammen und verschmilzt die Kanten
+    public MapLayer cluster() {
+        double coarserCellSize = cellSize * 2;
+        int coarserColumns = columns / 2 + 1;
+        int[] clusterByCell = new int[coarserColumns * (rows / 2 + 1)];
+        Arrays.fill(clusterByCell, -1);
+        int[] clusterOf = new int[xs.length];
+        List<double[]> sums = new ArrayList<>();
+
+        for (int i = 0; i < xs.length; i++) {
+            int cell = cell(xs[i], originX, coarserCellSize) + cell(ys[i], originY, coarserCellSize) * coarserColumns;
+            if (clusterByCell[cell] < 0) {
+                clusterByCell[cell] = sums.size();
+                sums.add(new double[3]);
+            }
+            int c = clusterByCell[cell];
+            clusterOf[i] = c;
+            double[] sum = sums.get(c);
+            sum[0] += xs[i] * weights[i];
+            sum[1] += ys[i] * weights[i];
+            sum[2] += weights[i];
+        }
+
+        int clusters = sums.size();
+        double[] cx = new double[clusters];
+        double[] cy = new double[clusters];
+        int[] cw = new int[clusters];
+        for (int c = 0; c < clusters; c++) {
+            double[] sum = sums.get(c);
+            cx[c] = sum[0] / sum[2];
+            cy[c] = sum[1] / sum[2];
+            cw[c] = (int) sum[2];
+        }
+
+        // Kanten zwischen denselben Clustern nur einmal übernehmen, Kanten innerhalb eines Clusters entfallen
+        Set<Long> merged = new HashSet<>();
+        for (int e = 0; e < edgeFrom.length; e++) {
+            int a = clusterOf[edgeFrom[e]];
+            int b = clusterOf[edgeTo[e]];
+            if (a == b) continue;
+            merged.add(((long) Math.min(a, b) << 32) | Math.max(a, b));
+        }
+
+        int[] from = new int[merged.size()];
+        int[] to = new int[merged.size()];
+        boolean[] both = new boolean[merged.size()];
+        int e = 0;
+        for (long key : merged) {
+            from[e] = (int) (key >>> 32);
+            to[e] = (int) key;
+            both[e] = true;
+            e++;
+        }
+
+        return new MapLayer(coarserCellSize, cx, cy, cw, new String[clusters], from, to, both);
+    }
+
+    // Ruft die Aktion für jeden Punkt auf, dessen Zelle das Rechteck schneidet
+    public void forEachNode(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        int cx0 = Math.max(0, cell(minX, originX, cellSize)), cx1 = Math.min(columns - 1, cell(maxX, originX, cellSize));
+        int cy0 = Math.max(0, cell(minY, originY, cellSize)), cy1 = Math.min(rows - 1, cell(maxY, originY, cellSize));
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int c = cy * columns + cx;
+                for (int k = nodeStart[c]; k < nodeStart[c + 1]; k++) {
+                    action.accept(nodeItems[k]);
+                }
+            }
+        }
+    }
+
+    // Ruft die Aktion für jede Kante auf, deren Begrenzungsrahmen das Rechteck schneidet (jede Kante genau einmal)
+    public void forEachEdge(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        int cx0 = Math.max(0, cell(minX, originX, cellSize)), cx1 = Math.min(columns - 1, cell(maxX, originX, cellSize));
+        int cy0 = Math.max(0, cell(minY, originY, cellSize)), cy1 = Math.min(rows - 1, cell(maxY, originY, cellSize));
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int c = cy * columns + cx;
+                for (int k = edgeStart[c]; k < edgeStart[c + 1]; k++) {
+                    int e = edgeItems[k];
+                    // Eine Kante liegt in mehreren Zellen, sie wird nur in der ersten Zelle innerhalb des Rechtecks gemeldet
+                    int firstX = Math.max(cx0, Math.min(cell(xs[edgeFrom[e]], originX, cellSize), cell(xs[edgeTo[e]], originX, cellSize)));
+                    int firstY = Math.max(cy0, Math.min(cell(ys[edgeFrom[e]], originY, cellSize), cell(ys[edgeTo[e]], originY, cellSize)));
+                    if (cx == firstX && cy == firstY) {
+                        action.accept(e);
+                    }
+                }
+            }
+        }
+    }
+
+    // Sortiert jeden Punkt in genau eine Zelle ein
+    private void indexNodes() {
+        int[] cellOf = new int[xs.length];
+        int[] counts = new int[columns * rows];
+        for (int i = 0; i < xs.length; i++) {
+            cellOf[i] = cell(xs[i], originX, cellSize) + cell(ys[i], originY, cellSize) * columns;
+            counts[cellOf[i]]++;
+        }
+        prefixSums(counts, nodeStart);
+        for (int i = 0; i < xs.length; i++) {
+            nodeItems[nodeStart[cellOf[i]] + --counts[cellOf[i]]] = i;
+        }
+    }
+
+    // Ruft die Aktion für jede Zelle im Begrenzungsrahmen jeder Kante auf
+    private void forEachEdgeCell(CellAction action) {
+        for (int e = 0; e < edgeFrom.length; e++) {
+            int ax = cell(xs[edgeFrom[e]], originX, cellSize), bx = cell(xs[edgeTo[e]], originX, cellSize);
+            int ay = cell(ys[edgeFrom[e]], originY, cellSize), by = cell(ys[edgeTo[e]], originY, cellSize);
+            for (int cy = Math.min(ay, by); cy <= Math.max(ay, by); cy++) {
+                for (int cx = Math.min(ax, bx); cx <= Math.max(ax, bx); cx++) {
+                    action.accept(e, cy * columns + cx);
+                }
+            }
+        }
+    }
+
+    // Schreibt die Startpositionen jeder Zelle nach start und gibt die Gesamtzahl der Einträge zurück
+    private static int prefixSums(int[] counts, int[] start) {
+        for (int c = 0; c < counts.length; c++) {
+            start[c + 1] = start[c] + counts[c];
+        }
+        return start[counts.length];
+    }
+
+    private static int cell(double value, double origin, double cellSize) {
+        return (int) Math.floor((value - origin) / cellSize);
+    }
+
+    private interface CellAction {
+        void accept(int item, int cell);
+    }
+
+    public int size() {
+        return xs.length;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public double getX(int i) {
+        return xs[i];
+    }
+
+    public double getY(int i) {
+        return ys[i];
+    }
+
+    public String getLabel(int i) {
+        return labels[i];
+    }
+
+    public int getEdgeFrom(int e) {
+        return edgeFrom[e];
+    }
+
+    public int getEdgeTo(int e) {
+        return edgeTo[e];
+    }
+
+    public boolean isTwoWay(int e) {
+        return twoWay[e];
+    }
+}
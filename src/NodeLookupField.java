@@ -0,0 +1,100 @@
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Eingabefeld für einen Knotennamen. Passende Namen werden bei jeder Eingabe beim Graphen nachgeschlagen und als
+// Vorschläge angezeigt, damit bei einer gekachelten Karte nie die Namen aller Knoten geladen sein müssen.
+// Das Nachschlagen kann Namensdateien lesen und läuft daher in einem Hintergrund-Thread.
+public class NodeLookupField extends JTextField {
+    private static final int MAX_SUGGESTIONS = 10;
+    private static final ExecutorService LOOKUP_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "node-lookup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Graph graph;
+    private final JPopupMenu suggestions;
+    private boolean choosing; // true, während ein Vorschlag übernommen wird
+    private volatile int lookupId; // nur die Vorschläge zur letzten Eingabe werden angezeigt
+
+    public NodeLookupField(Graph graph, int columns) {
+        super(columns);
+        this.graph = graph;
+        this.suggestions = new JPopupMenu();
+        this.suggestions.setFocusable(false);
+
+        getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                updateSuggestions();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                updateSuggestions();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+    }
+
+    // Sucht im Hintergrund die ersten Namen, die mit der bisherigen Eingabe beginnen; inzwischen überholte Eingaben
+    // werden übersprungen
+    private void updateSuggestions() {
+        suggestions.setVisible(false);
+        suggestions.removeAll();
+
+        int id = ++lookupId;
+        String prefix = getNodeName();
+        if (choosing || prefix.isEmpty() || !isShowing()) return;
+
+        LOOKUP_EXECUTOR.submit(() -> {
+            if (id != lookupId) return;
+            List<String> names;
+            try {
+                names = graph.findNodeNames(prefix, MAX_SUGGESTIONS);
+            } catch (RuntimeException e) {
+                System.err.println("Vorschläge für " + prefix + " konnten nicht geladen werden: " + e.getMessage());
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (id == lookupId) {
+                    showSuggestions(prefix, names);
+                }
+            });
+        });
+    }
+
+    private void showSuggestions(String prefix, List<String> names) {
+        if (!isShowing()) return;
+        if (names.size() == 1 && names.get(0).equals(prefix)) return; // Eingabe ist bereits vollständig
+
+        for (String name : names) {
+            JMenuItem item = new JMenuItem(name);
+            item.addActionListener(e -> choose(name));
+            suggestions.add(item);
+        }
+        if (!names.isEmpty()) {
+            suggestions.show(this, 0, getHeight());
+            requestFocusInWindow();
+        }
+    }
+
+    // Übernimmt einen Vorschlag und meldet ihn wie ein Enter an die ActionListener des Feldes
+    private void choose(String name) {
+        choosing = true;
+        setText(name);
+        choosing = false;
+        postActionEvent();
+    }
+
+    public String getNodeName() {
+        return getText().trim();
+    }
+}
@@ -0,0 +1,53 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Führt Routenanfragen nacheinander in einem Hintergrund-Thread aus. Eine neue Anfrage hat immer Vorrang:
+// die laufende Anfrage wird über eine Unterbrechung abgebrochen, eine noch wartende wird verworfen.
+public class QueryScheduler {
+    private static final long SHUTDOWN_TIMEOUT_MS = 1000;
+
+    private final ExecutorService executorService;
+    private Future<?> currentQuery;
+
+    public QueryScheduler() {
+        this.executorService = Executors.newSingleThreadExecutor(r -> new Thread(r, "query-scheduler"));
+    }
+
+    // Ersetzt die aktuelle Anfrage durch die neue
+    public synchronized void submit(Runnable query) {
+        cancel();
+        currentQuery = executorService.submit(query);
+    }
+
+    // Führt eine Aufgabe, die den Graphen verändert (z. B. ein neu geladenes Profil), im selben Thread nach der
+    // laufenden Anfrage aus. Sie ist keine Anfrage: sie bricht nichts ab und wird auch nicht von neuen Anfragen abgebrochen.
+    public void execute(Runnable task) {
+        executorService.execute(task);
+    }
+
+    // Bricht die laufende oder wartende Anfrage ab; die Suche prüft die Unterbrechung in jeder Iteration
+    public synchronized void cancel() {
+        if (currentQuery != null) {
+            currentQuery.cancel(true);
+            currentQuery = null;
+        }
+    }
+
+    // Gibt an, ob gerade eine Anfrage läuft oder wartet
+    public synchronized boolean isBusy() {
+        return currentQuery != null && !currentQuery.isDone();
+    }
+
+    // Bricht alle Anfragen ab und wartet kurz, bis der Thread beendet ist
+    public void shutdown() {
+        cancel();
+        executorService.shutdownNow();
+        try {
+            executorService.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+// Besuchte Knoten einer Suche, räumlich in ein Raster einsortiert, damit beim Zeichnen nur der sichtbare Ausschnitt
+// durchlaufen wird. Für die Übersicht merkt sich jede gröbere Stufe (doppelte Zellgröße) einen Knoten pro Zelle.
+public class SearchOverlay {
+    private final double originX;
+    private final double originY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final List<Knoten> visitedNodes;
+    private final Map<Integer, List<Integer>> nodeCells; // Zelle -> Indizes in visitedNodes
+    private final Map<Integer, List<Integer>> edgeCells; // Zelle -> Kante i (von Knoten i zu Knoten i + 1), in jeder Zelle ihres Begrenzungsrahmens
+    private final List<Map<Integer, Knoten>> overviewCells; // Stufe 1, 2, ...: erster besuchter Knoten je Zelle
+
+    public SearchOverlay(double minX, double minY, double maxX, double maxY, double cellSize) {
+        this.originX = minX;
+        this.originY = minY;
+        this.cellSize = cellSize;
+        this.columns = cell(maxX, minX, cellSize) + 1;
+        this.rows = cell(maxY, minY, cellSize) + 1;
+        this.visitedNodes = new ArrayList<>();
+        this.nodeCells = new HashMap<>();
+        this.edgeCells = new HashMap<>();
+        this.overviewCells = new ArrayList<>();
+
+        // Gröbere Stufen, bis eine Zelle die ganze Karte abdeckt
+        double extent = Math.max(maxX - minX, maxY - minY);
+        for (double size = cellSize * 2; ; size *= 2) {
+            overviewCells.add(new HashMap<>());
+            if (size >= extent) break;
+        }
+    }
+
+    // Fügt besuchte Knoten in der Reihenfolge der Suche hinzu
+    public void addAll(List<Knoten> nodes) {
+        for (Knoten node : nodes) {
+            int index = visitedNodes.size();
+            visitedNodes.add(node);
+            nodeCells.computeIfAbsent(cellOf(node, 0), k -> new ArrayList<>()).add(index);
+
+            // Besuchte Kante: aufeinanderfolgende besuchte Knoten, die direkt verbunden sind
+            if (index > 0 && visitedNodes.get(index - 1).getNeighbors().contains(node)) {
+                int[] range = edgeCellRange(index - 1);
+                for (int cy = range[1]; cy <= range[3]; cy++) {
+                    for (int cx = range[0]; cx <= range[2]; cx++) {
+                        edgeCells.computeIfAbsent(cy * columns + cx, k -> new ArrayList<>()).add(index - 1);
+                    }
+                }
+            }
+
+            // Ist die Zelle einer Stufe schon belegt, sind es auch alle gröberen
+            for (int level = 1; level <= overviewCells.size(); level++) {
+                if (overviewCells.get(level - 1).putIfAbsent(cellOf(node, level), node) != null) break;
+            }
+        }
+    }
+
+    public void clear() {
+        visitedNodes.clear();
+        nodeCells.clear();
+        edgeCells.clear();
+        for (Map<Integer, Knoten> level : overviewCells) {
+            level.clear();
+        }
+    }
+
+    public Knoten get(int index) {
+        return visitedNodes.get(index);
+    }
+
+    public int size() {
+        return visitedNodes.size();
+    }
+
+    // Ruft die Aktion für jeden besuchten Knoten auf, dessen Zelle das Rechteck schneidet
+    public void forEachNode(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        forEachCell(minX, minY, maxX, maxY, 0, cell -> {
+            List<Integer> indices = nodeCells.get(cell);
+            if (indices != null) {
+                for (int index : indices) {
+                    action.accept(index);
+                }
+            }
+        });
+    }
+
+    // Ruft die Aktion für jede besuchte Kante i (Knoten i zu Knoten i + 1) auf, deren Begrenzungsrahmen das Rechteck
+    // schneidet. Eine Kante liegt in mehreren Zellen, sie wird nur in der ersten Zelle innerhalb des Rechtecks gemeldet.
+    public void forEachEdge(double minX, double minY, double maxX, double maxY, IntConsumer action) {
+        int cx0 = Math.max(0, cell(minX, originX, cellSize));
+        int cy0 = Math.max(0, cell(minY, originY, cellSize));
+        forEachCell(minX, minY, maxX, maxY, 0, cell -> {
+            List<Integer> edges = edgeCells.get(cell);
+            if (edges == null) return;
+            for (int edge : edges) {
+                int[] range = edgeCellRange(edge);
+                if (cell == Math.max(cy0, range[1]) * columns + Math.max(cx0, range[0])) {
+                    action.accept(edge);
+                }
+            }
+        });
+    }
+
+    // Zellen im Begrenzungsrahmen der Kante i: minX, minY, maxX, maxY
+    private int[] edgeCellRange(int edge) {
+        int a = cellOf(visitedNodes.get(edge), 0);
+        int b = cellOf(visitedNodes.get(edge + 1), 0);
+        return new int[] {
+                Math.min(a % columns, b % columns), Math.min(a / columns, b / columns),
+                Math.max(a % columns, b % columns), Math.max(a / columns, b / columns)};
+    }
+
+    // Ruft die Aktion für einen Knoten je belegter Zelle der feinsten Stufe auf, deren Zellen mindestens minCellSize groß sind
+    public void forEachOverviewNode(double minX, double minY, double maxX, double maxY, double minCellSize, Consumer<Knoten> action) {
+        int level = 1;
+        while (level < overviewCells.size() && cellSize * (1L << level) < minCellSize) {
+            level++;
+        }
+        Map<Integer, Knoten> levelCells = overviewCells.get(level - 1);
+        forEachCell(minX, minY, maxX, maxY, level, cell -> {
+            Knoten node = levelCells.get(cell);
+            if (node != null) {
+                action.accept(node);
+            }
+        });
+    }
+
+    private void forEachCell(double minX, double minY, double maxX, double maxY, int level, IntConsumer action) {
+        double size = cellSize * (1L << level);
+        int levelColumns = (columns - 1 >> level) + 1;
+        int levelRows = (rows - 1 >> level) + 1;
+        int cx0 = Math.max(0, cell(minX, originX, size)), cx1 = Math.min(levelColumns - 1, cell(maxX, originX, size));
+        int cy0 = Math.max(0, cell(minY, originY, size)), cy1 = Math.min(levelRows - 1, cell(maxY, originY, size));
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                action.accept(cy * levelColumns + cx);
+            }
+        }
+    }
+
+    private int cellOf(Knoten node, int level) {
+        double size = cellSize * (1L << level);
+        int levelColumns = (columns - 1 >> level) + 1;
+        int levelRows = (rows - 1 >> level) + 1;
+        int cx = Math.max(0, Math.min(levelColumns - 1, cell(node.getX(), originX, size)));
+        int cy = Math.max(0, Math.min(levelRows - 1, cell(node.getY(), originY, size)));
+        return cy * levelColumns + cx;
+    }
+
+    private static int cell(double value, double origin, double cellSize) {
+        return (int) Math.floor((value - origin) / cellSize);
+    }
+}
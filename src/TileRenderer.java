@@ -0,0 +1,337 @@
+import java.awt.*;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Zeichnet die Karte kachelweise im Hintergrund und hält die fertigen Kacheln in einem LRU-Cache.
+// Je nach Zoom wird eine vereinfachte Übersicht (Cluster) oder die volle Detailstufe gezeichnet.
+// Bei einer gekachelten Karte wird die volle Detailstufe pro Kartenkachel erst beim Zeichnen geladen.
+public class TileRenderer {
+    public static final int TILE_SIZE = 256;
+    private static final int MAX_CACHED_TILES = 128;
+    public static final double CLUSTER_PIXELS = 8; // Mindestabstand in Pixeln, ab dem einzelne Knoten gezeichnet werden
+    private static final double LABEL_PIXELS = 60; // Mindestabstand in Pixeln, ab dem Namen und Pfeile gezeichnet werden
+    private static final int MAX_NODE_SIZE = 20;
+    private static final int MIN_NODE_SIZE = 4;
+    public static final int CLUSTER_NODE_SIZE = 6;
+
+    private final Graph graph;
+    private final MapLayer detailLayer; // null bei einer gekachelten Karte
+    private final List<MapLayer> overviewLayers; // von fein nach grob
+    private final Map<Integer, MapLayer> regionLayers; // volle Detailstufe je Kartenkachel einer gekachelten Karte
+    private final Set<Integer> failedRegions; // Kartenkacheln, die nicht gelesen werden konnten und nicht erneut versucht werden
+    private final double baseCellSize;
+    private final int originX;
+    private final int originY;
+    private final int padding;
+    private final Runnable onTileReady;
+    private final Map<String, BufferedImage> cache;
+    private final Set<String> pending;
+    private final ExecutorService executorService;
+    private volatile int currentLevel;
+    private volatile int generation;
+    private volatile int[] visibleTiles = {Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE}; // tx0, ty0, tx1, ty1
+
+    public TileRenderer(Graph graph, int padding, Runnable onTileReady) {
+        this.originX = graph.getMinX();
+        this.originY = graph.getMinY();
+        this.padding = padding;
+        this.onTileReady = onTileReady;
+        this.graph = graph;
+        this.baseCellSize = averageSpacing(graph);
+
+        TiledMap tiledMap = graph.getTiledMap();
+        if (tiledMap == null) {
+            this.detailLayer = MapLayer.fromGraph(graph, baseCellSize);
+            this.overviewLayers = buildOverviewLayers(detailLayer.cluster());
+        } else {
+            // Die gröbste Übersicht stammt aus der Indexdatei, damit keine Kachel geladen werden muss
+            this.detailLayer = null;
+            this.overviewLayers = buildOverviewLayers(MapLayer.fromNodes(tiledMap.getOverviewNodes(), tiledMap.getTileSize()));
+        }
+
+        this.regionLayers = new LinkedHashMap<Integer, MapLayer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, MapLayer> eldest) {
+                return size() > MAX_CACHED_TILES;
+            }
+        };
+        this.cache = new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+                return size() > MAX_CACHED_TILES;
+            }
+        };
+        this.failedRegions = ConcurrentHashMap.newKeySet();
+        this.pending = ConcurrentHashMap.newKeySet();
+        this.executorService = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+            Thread thread = new Thread(r, "tile-renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Mittlerer Knotenabstand, falls die Knoten gleichmäßig über die Fläche verteilt wären
+    private static double averageSpacing(Graph graph) {
+        if (graph.isEmpty()) return 1;
+        double width = Math.max(1, graph.getMaxX() - graph.getMinX());
+        double height = Math.max(1, graph.getMaxY() - graph.getMinY());
+        return Math.max(1, Math.sqrt(width * height / graph.getNodeCount()));
+    }
+
+    // Berechnet die Übersichtsstufen vorab, jede Stufe verdoppelt die Zellgröße der vorherigen
+    private static List<MapLayer> buildOverviewLayers(MapLayer finest) {
+        List<MapLayer> layers = new ArrayList<>();
+        MapLayer layer = finest;
+        layers.add(layer);
+        while (layer.size() > 1) {
+            MapLayer coarser = layer.cluster();
+            if (coarser.size() == layer.size()) break;
+            layers.add(coarser);
+            layer = coarser;
+        }
+        return layers;
+    }
+
+    // Gibt an, ob bei diesem Maßstab einzelne Knoten statt Cluster gezeichnet werden
+    public boolean isFullDetail(double scale) {
+        return baseCellSize * scale >= CLUSTER_PIXELS;
+    }
+
+    // Wählt die feinste Übersicht, in der benachbarte Cluster mindestens CLUSTER_PIXELS auseinander liegen
+    private MapLayer overviewLayerFor(double scale) {
+        for (MapLayer layer : overviewLayers) {
+            if (layer.getCellSize() * scale >= CLUSTER_PIXELS) return layer;
+        }
+        return overviewLayers.get(overviewLayers.size() - 1);
+    }
+
+    // Volle Detailstufe für das Rechteck; bei einer gekachelten Karte werden die nötigen Kartenkacheln geladen
+    private List<MapLayer> detailLayersFor(double minX, double minY, double maxX, double maxY) {
+        if (detailLayer != null) return Collections.singletonList(detailLayer);
+
+        TiledMap tiledMap = graph.getTiledMap();
+        List<MapLayer> layers = new ArrayList<>();
+        for (int region : tiledMap.regionsIn(minX, minY, maxX, maxY)) {
+            if (failedRegions.contains(region)) continue;
+            MapLayer layer;
+            synchronized (regionLayers) {
+                layer = regionLayers.get(region);
+            }
+            if (layer == null) {
+                // loadRegion liefert eine Kopie, und die Kanten eines Knotens werden beim Laden und Verdrängen nur als
+                // Ganzes ersetzt, daher ist beim Aufbau keine Sperre auf den Graphen nötig
+                try {
+                    layer = MapLayer.fromNodes(tiledMap.loadRegion(region), baseCellSize);
+                } catch (RuntimeException e) {
+                    // Ohne diese Kartenkachel weiterzeichnen, statt sie bei jedem Neuzeichnen erneut zu lesen
+                    failedRegions.add(region);
+                    System.err.println("Fehler beim Laden der Karte: " + e.getMessage());
+                    continue;
+                }
+                synchronized (regionLayers) {
+                    regionLayers.put(region, layer);
+                }
+            }
+            layers.add(layer);
+        }
+        return layers;
+    }
+
+    public double getBaseCellSize() {
+        return baseCellSize;
+    }
+
+    // Gibt an, ob bei diesem Maßstab Knotennamen und Pfeile gezeichnet werden
+    public boolean showsDetails(double scale) {
+        return baseCellSize * scale >= LABEL_PIXELS;
+    }
+
+    // Knotengröße in Pixeln, wächst mit dem Zoom bis zur ursprünglichen Größe
+    public int getNodeSize(double scale) {
+        int size = (int) (baseCellSize * scale / 2);
+        return Math.max(MIN_NODE_SIZE, Math.min(MAX_NODE_SIZE, size));
+    }
+
+    // Liefert eine fertige Kachel aus dem Cache oder null; fehlende Kacheln werden im Hintergrund gezeichnet
+    public BufferedImage getTile(int level, double scale, int tx, int ty) {
+        String key = generation + ":" + level + ":" + tx + ":" + ty;
+        synchronized (cache) {
+            BufferedImage tile = cache.get(key);
+            if (tile != null) return tile;
+        }
+
+        if (pending.add(key)) {
+            int tileGeneration = generation;
+            executorService.submit(() -> {
+                try {
+                    // Veraltete Aufträge (anderer Zoom, zurückgesetzte Ansicht oder inzwischen aus dem Bild verschoben) überspringen
+                    if (level != currentLevel || tileGeneration != generation || !isVisible(tx, ty)) return;
+                    BufferedImage tile;
+                    try {
+                        tile = renderTile(scale, tx, ty);
+                    } catch (RuntimeException e) {
+                        // Leere Kachel merken, damit sie nicht bei jedem Neuzeichnen erneut angefordert wird
+                        System.err.println("Fehler beim Zeichnen der Kachel " + tx + ", " + ty + ": " + e.getMessage());
+                        tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+                    }
+                    synchronized (cache) {
+                        cache.put(key, tile);
+                    }
+                    onTileReady.run();
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        }
+        return null;
+    }
+
+    // Setzt den Bereich der sichtbaren Kacheln (einschließlich Vorausladen), Aufträge außerhalb werden verworfen
+    public void setVisibleTiles(int tx0, int ty0, int tx1, int ty1) {
+        this.visibleTiles = new int[] {tx0, ty0, tx1, ty1};
+    }
+
+    private boolean isVisible(int tx, int ty) {
+        int[] range = visibleTiles;
+        return tx >= range[0] && ty >= range[1] && tx <= range[2] && ty <= range[3];
+    }
+
+    // Setzt die aktuelle Zoomstufe, Aufträge für andere Stufen werden verworfen
+    public void setCurrentLevel(int level) {
+        this.currentLevel = level;
+    }
+
+    // Verwirft alle Kacheln, z. B. wenn sich der Grundmaßstab geändert hat
+    public void clear() {
+        generation++;
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    public double toPixelX(double x, double scale) {
+        return (x - originX) * scale + padding;
+    }
+
+    public double toPixelY(double y, double scale) {
+        return (y - originY) * scale + padding;
+    }
+
+    // Zeichnet eine Kachel; Koordinaten der Kachel sind Pixel der gesamten Karte bei diesem Maßstab
+    private BufferedImage renderTile(double scale, int tx, int ty) {
+        BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = tile.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.translate(-tx * TILE_SIZE, -ty * TILE_SIZE);
+
+        boolean fullDetail = isFullDetail(scale);
+        boolean details = fullDetail && showsDetails(scale);
+        int nodeSize = fullDetail ? getNodeSize(scale) : CLUSTER_NODE_SIZE;
+
+        // Sichtbarer Ausschnitt in Kartenkoordinaten, erweitert um Platz für Knoten und Namen
+        double margin = (LABEL_PIXELS + nodeSize) / scale;
+        double minX = originX + (tx * TILE_SIZE - padding) / scale - margin;
+        double minY = originY + (ty * TILE_SIZE - padding) / scale - margin;
+        double maxX = originX + ((tx + 1) * TILE_SIZE - padding) / scale + margin;
+        double maxY = originY + ((ty + 1) * TILE_SIZE - padding) / scale + margin;
+
+        List<MapLayer> layers = fullDetail
+                ? detailLayersFor(minX, minY, maxX, maxY)
+                : Collections.singletonList(overviewLayerFor(scale));
+
+        // Zeichne Kanten
+        g2d.setColor(fullDetail ? Color.BLACK : Color.GRAY);
+        g2d.setStroke(new BasicStroke(1));
+        for (MapLayer layer : layers) {
+            layer.forEachEdge(minX, minY, maxX, maxY, e -> {
+                int from = layer.getEdgeFrom(e);
+                int to = layer.getEdgeTo(e);
+                double x1 = toPixelX(layer.getX(from), scale), y1 = toPixelY(layer.getY(from), scale);
+                double x2 = toPixelX(layer.getX(to), scale), y2 = toPixelY(layer.getY(to), scale);
+                g2d.draw(new Line2D.Double(x1, y1, x2, y2));
+
+                if (details) {
+                    drawArrow(g2d, x1, y1, x2, y2);
+                    if (layer.isTwoWay(e)) {
+                        drawArrow(g2d, x2, y2, x1, y1);
+                    }
+                }
+            });
+        }
+
+        // Zeichne Knoten
+        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+        FontMetrics fm = g2d.getFontMetrics();
+        for (MapLayer layer : layers) {
+            layer.forEachNode(minX, minY, maxX, maxY, i -> {
+                // Nachbarn außerhalb einer Kartenkachel haben keinen Namen, sie werden mit ihrer eigenen Kachel gezeichnet
+                String name = layer.getLabel(i);
+                if (fullDetail && name == null) return;
+
+                int x = (int) toPixelX(layer.getX(i), scale);
+                int y = (int) toPixelY(layer.getY(i), scale);
+
+                g2d.setColor(Color.YELLOW);
+                g2d.fillOval(x - nodeSize / 2, y - nodeSize / 2, nodeSize, nodeSize);
+
+                if (details) {
+                    g2d.setColor(Color.BLACK);
+                    g2d.drawString(name, x - fm.stringWidth(name) / 2, y + 5);
+                }
+            });
+        }
+
+        g2d.dispose();
+        return tile;
+    }
+
+    // Zeichnet einen Pfeil (in Pixelkoordinaten), der den Übergang von einem Knoten zum anderen darstellt
+    public static void drawArrow(Graphics2D g2d, double fromX, double fromY, double toX, double toY) {
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length == 0) return; // Vermeide Division durch Null
+
+        // Normalisierte Richtung
+        double unitDx = dx / length;
+        double unitDy = dy / length;
+
+        double arrowSize = 10;
+        double arrowAngle = Math.PI / 6; // 30 Grad Winkel
+
+        // Position der Pfeilspitze (leicht vor dem Endpunkt)
+        double offset = 15;
+        double tipX = toX - unitDx * offset;
+        double tipY = toY - unitDy * offset;
+
+        // Berechnung der Pfeilspitzen
+        double angle = Math.atan2(dy, dx);
+        double x1 = tipX - arrowSize * Math.cos(angle - arrowAngle);
+        double y1 = tipY - arrowSize * Math.sin(angle - arrowAngle);
+        double x2 = tipX - arrowSize * Math.cos(angle + arrowAngle);
+        double y2 = tipY - arrowSize * Math.sin(angle + arrowAngle);
+
+        // Pfeil zeichnen
+        Path2D.Double arrow = new Path2D.Double();
+        arrow.moveTo(tipX, tipY);
+        arrow.lineTo(x1, y1);
+        arrow.lineTo(x2, y2);
+        arrow.closePath();
+
+        g2d.fill(arrow);
+    }
+}
@@ -0,0 +1,650 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Karte, die in quadratische Kacheln (Rasterzellen über x/y) zerlegt ist und erst bei Bedarf geladen wird.
+// Eine Indexdatei beschreibt Ausdehnung, Kacheln und die Kachel jedes Knotens, jede Kachel liegt in einer eigenen Datei:
+//   index.idx:        "kachelgroesse 1000", "grenzen minX minY maxX maxY",
+//                     "kachel 3_4 anzahl kanten schwerpunktX schwerpunktY minX minY maxX maxY [benachbarte Kacheln...]"
+//                     (minX bis maxY umfassen alle Knoten der Kachel und ihre Nachbarn; die Kanten einer Kachel erhalten
+//                     in der Reihenfolge ihrer Datei fortlaufende IDs, die Kacheln in der Reihenfolge der Indexdatei),
+//                     "namen 0 A" für jede Namensdatei mit ihrem ersten Namen,
+//                     "profil Fahrzeit" für jedes Kostenprofil nach der Streckenlänge
+//   namen_0.txt:      Zeilen "A 3_4" mit der Kachel jedes Knotens, nach Namen sortiert und auf Dateien zu je
+//                     NAMES_PER_FILE Namen verteilt, damit für eine Suche nach Namen nur eine Datei gelesen werden muss
+//   kachel_3_4.txt:   Knotenzeilen im Format der Kartendatei, aber nur mit Nachbarn derselben Kachel,
+//                     danach Randkanten zu Knoten anderer Kacheln im Format "A -> R(900, 1300)[12.5; inf]"
+public class TiledMap {
+    public static final String INDEX_FILE = "index.idx";
+    private static final int MAX_RESIDENT_TILES = 64;
+    private static final int NAMES_PER_FILE = 4096;
+    private static final int MAX_LOADED_NAME_FILES = 16;
+    private static final Pattern NODE_PATTERN = Pattern.compile("([A-Za-z0-9]+)\\((-?\\d+),\\s*(-?\\d+)\\),\\s*(.*)");
+    private static final Pattern BOUNDARY_PATTERN = Pattern.compile("([A-Za-z0-9]+)\\s*->\\s*([A-Za-z0-9]+)\\((-?\\d+),\\s*(-?\\d+)\\)(?:\\[([^\\]]*)\\])?");
+
+    private final Path directory;
+    private final int tileSize;
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+    private final int columns;
+    private final int rows;
+    private final int nodeCount;
+    private final int edgeCount;
+    private final List<String> profiles;
+    private final List<String> nameFileStarts; // erster Name jeder Namensdatei, aufsteigend sortiert
+    private final LinkedHashMap<Integer, TreeMap<String, Integer>> loadedNameFiles; // Name -> Kachel, LRU
+    private final TileSummary[] tiles; // Kacheln als Raster, Index = Zeile * columns + Spalte; null, wenn leer
+    private final int reach; // um so viele Kacheln ragen Kanten höchstens über ihre eigene Kachel hinaus
+    private final LinkedHashMap<Integer, List<Knoten>> residentTiles; // Zugriffsreihenfolge für LRU
+    private final int[] tileQueryEpoch; // Kacheln der laufenden Suche werden nicht verdrängt
+    private final Map<String, WeakReference<Knoten>> knownNodes; // hält die Identität von Randknoten über Neuladen hinweg
+    private Graph graph;
+    private int queryEpoch = 1;
+
+    // Kurzbeschreibung einer Kachel aus der Indexdatei, dient auch als Übersicht der ganzen Karte
+    private static class TileSummary {
+        int count;
+        int edgeCount;
+        int firstEdge; // ID der ersten Kante der Kachel
+        int centroidX;
+        int centroidY;
+        int[] extent = new int[4]; // Ausdehnung der Kachel samt Kanten: minX, minY, maxX, maxY
+        List<Integer> adjacentTiles = new ArrayList<>();
+    }
+
+    // Liest nur die Indexdatei; Kacheln werden erst geladen, wenn eine Suche oder die Ansicht sie erreicht
+    public TiledMap(String indexPath) throws IOException {
+        Path indexFile = Paths.get(indexPath);
+        this.directory = indexFile.toAbsolutePath().getParent();
+        this.nameFileStarts = new ArrayList<>();
+        this.loadedNameFiles = new LinkedHashMap<Integer, TreeMap<String, Integer>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, TreeMap<String, Integer>> eldest) {
+                return size() > MAX_LOADED_NAME_FILES;
+            }
+        };
+        this.profiles = new ArrayList<>();
+        this.profiles.add(Graph.DISTANCE_PROFILE);
+        this.residentTiles = new LinkedHashMap<>(16, 0.75f, true);
+        this.knownNodes = new HashMap<>();
+
+        int size = 0;
+        int[] bounds = new int[4];
+        List<String[]> tileLines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                switch (parts[0]) {
+                    case "kachelgroesse":
+                        size = Integer.parseInt(parts[1]);
+                        break;
+                    case "grenzen":
+                        for (int i = 0; i < 4; i++) {
+                            bounds[i] = Integer.parseInt(parts[i + 1]);
+                        }
+                        break;
+                    case "kachel":
+                        tileLines.add(parts);
+                        break;
+                    case "namen":
+                        nameFileStarts.add(parts[2]);
+                        break;
+                    case "profil":
+                        profiles.add(line.trim().substring(parts[0].length()).trim());
+                        break;
+                    case "":
+                        break;
+                    default:
+                        System.err.println("Ungültige Indexzeile: " + line);
+                }
+            }
+        }
+
+        if (size <= 0) {
+            throw new IOException("Indexdatei enthält keine gültige Kachelgröße: " + indexPath);
+        }
+        this.tileSize = size;
+        this.minX = bounds[0];
+        this.minY = bounds[1];
+        this.maxX = bounds[2];
+        this.maxY = bounds[3];
+        this.columns = (maxX - minX) / tileSize + 1;
+        this.rows = (maxY - minY) / tileSize + 1;
+        this.tiles = new TileSummary[columns * rows];
+        this.tileQueryEpoch = new int[columns * rows];
+
+        int count = 0;
+        int edges = 0;
+        for (String[] parts : tileLines) {
+            TileSummary summary = new TileSummary();
+            summary.count = Integer.parseInt(parts[2]);
+            count += summary.count;
+            summary.edgeCount = Integer.parseInt(parts[3]);
+            summary.firstEdge = edges;
+            edges += summary.edgeCount;
+            summary.centroidX = Integer.parseInt(parts[4]);
+            summary.centroidY = Integer.parseInt(parts[5]);
+            for (int i = 0; i < 4; i++) {
+                summary.extent[i] = Integer.parseInt(parts[i + 6]);
+            }
+            for (int i = 10; i < parts.length; i++) {
+                summary.adjacentTiles.add(parseTileKey(parts[i]));
+            }
+            tiles[parseTileKey(parts[1])] = summary;
+        }
+
+        int maxReach = 0;
+        for (int tile = 0; tile < tiles.length; tile++) {
+            if (tiles[tile] == null) continue;
+            int[] extent = tiles[tile].extent;
+            int cx = tile % columns, cy = tile / columns;
+            maxReach = Math.max(maxReach, cx - Math.floorDiv(extent[0] - minX, tileSize));
+            maxReach = Math.max(maxReach, cy - Math.floorDiv(extent[1] - minY, tileSize));
+            maxReach = Math.max(maxReach, Math.floorDiv(extent[2] - minX, tileSize) - cx);
+            maxReach = Math.max(maxReach, Math.floorDiv(extent[3] - minY, tileSize) - cy);
+        }
+        this.reach = maxReach;
+        this.nodeCount = count;
+        this.edgeCount = edges;
+    }
+
+    // Verknüpft die Karte mit dem Graphen, in den die Kacheln geladen werden
+    void attach(Graph graph) {
+        this.graph = graph;
+    }
+
+    // Beginnt eine neue Suche: Kacheln früherer Suchen dürfen wieder verdrängt werden und werden es sofort,
+    // damit nach einer großen Suche nicht die ganze Karte im Speicher bleibt
+    void startQuery() {
+        synchronized (graph) {
+            queryEpoch++;
+            evictTiles();
+        }
+    }
+
+    // Lädt die Kachel des Knotens und gibt ihn zurück (null, wenn der Name unbekannt ist)
+    Knoten loadNode(String name) {
+        Integer tile = tileOfNode(name);
+        if (tile == null) return null;
+
+        synchronized (graph) {
+            loadTile(tile, true);
+            return graph.getLoadedNode(name);
+        }
+    }
+
+    // Stellt sicher, dass die Kachel des Knotens und die Kacheln aller Nachbarn geladen und für die laufende Suche
+    // festgehalten sind, bevor die Suche sie betrachtet. Bereits festgehaltene Kacheln kosten nur einen Arrayzugriff.
+    void loadNeighbors(Knoten node) {
+        synchronized (graph) {
+            int tile = tileOf(node.getX(), node.getY());
+            if (tileQueryEpoch[tile] != queryEpoch) {
+                loadTile(tile, true);
+            }
+            for (Knoten neighbor : node.getNeighbors()) {
+                tile = tileOf(neighbor.getX(), neighbor.getY());
+                if (tileQueryEpoch[tile] != queryEpoch) {
+                    loadTile(tile, true);
+                }
+            }
+        }
+    }
+
+    // Gibt an, ob die Karte einen Knoten mit diesem Namen enthält; liest höchstens eine Namensdatei
+    public boolean containsNode(String name) {
+        return tileOfNode(name) != null;
+    }
+
+    // Gibt bis zu limit Namen in alphabetischer Reihenfolge zurück, die mit dem Präfix beginnen
+    public List<String> findNodeNames(String prefix, int limit) {
+        List<String> names = new ArrayList<>();
+        for (int file = Math.max(0, nameFileFor(prefix)); file < nameFileStarts.size(); file++) {
+            for (String name : nameFile(file).tailMap(prefix).keySet()) {
+                if (!name.startsWith(prefix) || names.size() == limit) return names;
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // Sucht die Kachel eines Knotens in der Namensdatei, in die sein Name fällt (null, wenn der Name unbekannt ist)
+    private Integer tileOfNode(String name) {
+        int file = nameFileFor(name);
+        return file < 0 ? null : nameFile(file).get(name);
+    }
+
+    // Index der letzten Namensdatei, deren erster Name nicht nach dem gesuchten Namen kommt (-1 vor der ersten)
+    private int nameFileFor(String name) {
+        int index = Collections.binarySearch(nameFileStarts, name);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // Gibt die Namensdatei aus dem Speicher zurück oder liest sie
+    private TreeMap<String, Integer> nameFile(int file) {
+        synchronized (loadedNameFiles) {
+            TreeMap<String, Integer> tiles = loadedNameFiles.get(file);
+            if (tiles != null) return tiles;
+
+            tiles = new TreeMap<>();
+            try (BufferedReader reader = Files.newBufferedReader(directory.resolve(nameFileName(file)))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.trim().split("\\s+");
+                    if (parts.length == 2) {
+                        tiles.put(parts[0], parseTileKey(parts[1]));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Namensdatei " + nameFileName(file) + " konnte nicht gelesen werden", e);
+            }
+            loadedNameFiles.put(file, tiles);
+            return tiles;
+        }
+    }
+
+    // Gibt die ID der Kante von from nach to zurück (Knoten.NO_EDGE, wenn es sie nicht gibt). Die Kachel von from wird
+    // dafür geladen, aber nicht für die laufende Suche festgehalten.
+    int findEdge(String from, String to) {
+        Integer tile = tileOfNode(from);
+        if (tile == null) return Knoten.NO_EDGE;
+
+        synchronized (graph) {
+            loadTile(tile, false);
+            Knoten node = graph.getLoadedNode(from);
+            return node == null ? Knoten.NO_EDGE : node.getEdgeId(to);
+        }
+    }
+
+    // Lädt eine Kachel für die Anzeige und gibt eine Kopie ihrer Knoten zurück
+    List<Knoten> loadRegion(int tile) {
+        synchronized (graph) {
+            List<Knoten> nodes = loadTile(tile, false);
+            return nodes == null ? new ArrayList<>() : new ArrayList<>(nodes);
+        }
+    }
+
+    // Gibt alle Kacheln zurück, deren Knoten oder Kanten das Rechteck schneiden
+    public List<Integer> regionsIn(double fromX, double fromY, double toX, double toY) {
+        List<Integer> regions = new ArrayList<>();
+        int cx0 = Math.max(0, (int) Math.floor((fromX - minX) / tileSize) - reach);
+        int cy0 = Math.max(0, (int) Math.floor((fromY - minY) / tileSize) - reach);
+        int cx1 = Math.min(columns - 1, (int) Math.floor((toX - minX) / tileSize) + reach);
+        int cy1 = Math.min(rows - 1, (int) Math.floor((toY - minY) / tileSize) + reach);
+
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                TileSummary summary = tiles[cy * columns + cx];
+                if (summary != null && summary.extent[0] <= toX && summary.extent[2] >= fromX
+                        && summary.extent[1] <= toY && summary.extent[3] >= fromY) {
+                    regions.add(cy * columns + cx);
+                }
+            }
+        }
+        return regions;
+    }
+
+    // Übersicht aus der Indexdatei: ein Punkt pro Kachel im Schwerpunkt ihrer Knoten, verbunden mit benachbarten Kacheln
+    public List<Knoten> getOverviewNodes() {
+        Knoten[] centroids = new Knoten[tiles.length];
+        List<Knoten> overview = new ArrayList<>();
+        for (int tile = 0; tile < tiles.length; tile++) {
+            if (tiles[tile] == null) continue;
+            centroids[tile] = new Knoten(tileKey(tile % columns, tile / columns), tiles[tile].centroidX, tiles[tile].centroidY);
+            overview.add(centroids[tile]);
+        }
+        for (int tile = 0; tile < tiles.length; tile++) {
+            if (tiles[tile] == null) continue;
+            for (int adjacent : tiles[tile].adjacentTiles) {
+                if (adjacent >= 0 && adjacent < tiles.length && centroids[adjacent] != null) {
+                    centroids[tile].addNeighbor(centroids[adjacent], Knoten.NO_EDGE);
+                }
+            }
+        }
+        return overview;
+    }
+
+    // Lädt eine Kachel, falls sie noch nicht im Speicher liegt, und verdrängt danach die am längsten ungenutzte Kachel.
+    // Muss mit gehaltener Sperre auf den Graphen aufgerufen werden.
+    private List<Knoten> loadTile(int tile, boolean forQuery) {
+        if (tile < 0 || tile >= tiles.length || tiles[tile] == null) return null;
+        if (forQuery) {
+            tileQueryEpoch[tile] = queryEpoch;
+        }
+
+        List<Knoten> nodes = residentTiles.get(tile);
+        if (nodes != null) return nodes;
+
+        try {
+            nodes = readTile(tile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Kachel " + tileFileName(tile) + " konnte nicht gelesen werden", e);
+        }
+        residentTiles.put(tile, nodes);
+        evictTiles();
+        return nodes;
+    }
+
+    // Liest eine Kachel. Die Kanten jedes Knotens werden erst vollständig aufgebaut und dann in einem Schritt
+    // eingesetzt, damit die Threads der Anzeige nie eine halb geladene Kachel sehen.
+    private List<Knoten> readTile(int tile) throws IOException {
+        List<Knoten> nodes = new ArrayList<>();
+        Map<Knoten, String[]> connections = new LinkedHashMap<>(); // Reihenfolge der Datei, sie bestimmt die Kanten-IDs
+        Map<Knoten, List<Knoten>> neighbors = new HashMap<>();
+        Map<Knoten, List<Integer>> edgeIds = new HashMap<>();
+        List<Matcher> boundaryEdges = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(tileFileName(tile)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue;
+
+                Matcher boundary = BOUNDARY_PATTERN.matcher(line);
+                if (boundary.matches()) {
+                    boundaryEdges.add(boundary);
+                    continue;
+                }
+
+                Matcher matcher = NODE_PATTERN.matcher(line);
+                if (matcher.matches()) {
+                    Knoten node = knownNode(matcher.group(1),
+                            Integer.parseInt(matcher.group(2)),
+                            Integer.parseInt(matcher.group(3)));
+                    // Ein Knoten, der schon einmal geladen war, beginnt wieder im Ausgangszustand
+                    node.setDistance(Double.POSITIVE_INFINITY);
+                    node.setPrevious(null);
+                    node.setProcessed(false);
+                    node.setShortestPath(false);
+
+                    nodes.add(node);
+                    neighbors.put(node, new ArrayList<>());
+                    edgeIds.put(node, new ArrayList<>());
+                    graph.addNode(node);
+                    String neighborsList = matcher.group(4).trim();
+                    connections.put(node, neighborsList.isEmpty() ? new String[0] : neighborsList.split(",\\s*"));
+                } else {
+                    System.err.println("Ungültiges Zeilenformat: " + line);
+                }
+            }
+        }
+
+        // Verbindungen innerhalb der Kachel herstellen; jeder Eintrag belegt eine Kanten-ID, auch wenn er ungültig ist
+        TileSummary summary = tiles[tile];
+        int edge = summary.firstEdge;
+        for (Map.Entry<Knoten, String[]> entry : connections.entrySet()) {
+            for (String neighbor : entry.getValue()) {
+                Matcher matcher = FileReader.NEIGHBOR_PATTERN.matcher(neighbor);
+                Knoten to = matcher.matches() ? graph.getLoadedNode(matcher.group(1)) : null;
+                if (to != null) {
+                    addTileEdge(summary, neighbors, edgeIds, entry.getKey(), to, edge,
+                            FileReader.parseWeights(matcher.group(2), entry.getKey(), to, profiles.size()));
+                } else {
+                    System.err.println("Knoten nicht gefunden: " + neighbor);
+                }
+                edge++;
+            }
+        }
+
+        // Randkanten zeigen auf Knoten anderer Kacheln, die dafür nicht geladen sein müssen
+        for (Matcher boundary : boundaryEdges) {
+            Knoten from = graph.getLoadedNode(boundary.group(1));
+            if (from != null && neighbors.containsKey(from)) {
+                Knoten to = knownNode(boundary.group(2),
+                        Integer.parseInt(boundary.group(3)),
+                        Integer.parseInt(boundary.group(4)));
+                addTileEdge(summary, neighbors, edgeIds, from, to, edge,
+                        FileReader.parseWeights(boundary.group(5), from, to, profiles.size()));
+            }
+            edge++;
+        }
+
+        for (Knoten node : nodes) {
+            List<Integer> ids = edgeIds.get(node);
+            node.setEdges(neighbors.get(node), ids.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return nodes;
+    }
+
+    // Merkt sich die Kante für den Knoten und übernimmt ihre Kosten aus der Kachel, sofern die ID im Bereich der Kachel liegt
+    private void addTileEdge(TileSummary summary, Map<Knoten, List<Knoten>> neighbors, Map<Knoten, List<Integer>> edgeIds,
+                             Knoten from, Knoten to, int edge, double[] weights) {
+        if (edge >= summary.firstEdge + summary.edgeCount) {
+            System.err.println("Mehr Kanten als in der Indexdatei angegeben: " + from.getName() + " -> " + to.getName());
+            return;
+        }
+        if (!neighbors.get(from).contains(to)) {
+            neighbors.get(from).add(to);
+            edgeIds.get(from).add(edge);
+            graph.loadEdgeWeights(edge, weights);
+        }
+    }
+
+    // Gibt den bereits bekannten Knoten mit diesem Namen zurück oder legt ihn an
+    private Knoten knownNode(String name, int x, int y) {
+        WeakReference<Knoten> reference = knownNodes.get(name);
+        Knoten node = reference == null ? null : reference.get();
+        if (node == null) {
+            node = new Knoten(name, x, y);
+            knownNodes.put(name, new WeakReference<>(node));
+        }
+        return node;
+    }
+
+    // Verdrängt die am längsten ungenutzten Kacheln, die nicht zur laufenden Suche gehören
+    private void evictTiles() {
+        Iterator<Map.Entry<Integer, List<Knoten>>> iterator = residentTiles.entrySet().iterator();
+        while (residentTiles.size() > MAX_RESIDENT_TILES && iterator.hasNext()) {
+            Map.Entry<Integer, List<Knoten>> entry = iterator.next();
+            if (tileQueryEpoch[entry.getKey()] == queryEpoch) continue;
+
+            Set<Knoten> evicted = new HashSet<>(entry.getValue());
+            graph.removeNodes(evicted);
+            for (Knoten node : evicted) {
+                node.clearNeighbors();
+            }
+            iterator.remove();
+        }
+        knownNodes.values().removeIf(reference -> reference.get() == null);
+    }
+
+    private int tileOf(int x, int y) {
+        return Math.floorDiv(y - minY, tileSize) * columns + Math.floorDiv(x - minX, tileSize);
+    }
+
+    // Schlüssel "Spalte_Zeile" aus Index- und Dateinamen in den Rasterindex umrechnen
+    private int parseTileKey(String key) {
+        String[] parts = key.split("_");
+        return Integer.parseInt(parts[1]) * columns + Integer.parseInt(parts[0]);
+    }
+
+    private String tileFileName(int tile) {
+        return "kachel_" + tileKey(tile % columns, tile / columns) + ".txt";
+    }
+
+    private static String nameFileName(int file) {
+        return "namen_" + file + ".txt";
+    }
+
+    private static String tileKey(int cx, int cy) {
+        return cx + "_" + cy;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public List<String> getProfiles() {
+        return profiles;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    // Zerlegt einen vollständig geladenen Graphen in Kacheln und schreibt Kacheldateien und Indexdatei in das Verzeichnis
+    public static void write(Graph graph, Path directory, int tileSize) throws IOException {
+        Files.createDirectories(directory);
+        int minX = graph.getMinX();
+        int minY = graph.getMinY();
+
+        Map<String, List<Knoten>> nodesByTile = new LinkedHashMap<>();
+        for (Knoten node : graph.getNodes()) {
+            String tile = tileKey(Math.floorDiv(node.getX() - minX, tileSize), Math.floorDiv(node.getY() - minY, tileSize));
+            nodesByTile.computeIfAbsent(tile, k -> new ArrayList<>()).add(node);
+        }
+
+        try (BufferedWriter index = Files.newBufferedWriter(directory.resolve(INDEX_FILE))) {
+            index.write("kachelgroesse " + tileSize);
+            index.newLine();
+            index.write("grenzen " + minX + " " + minY + " " + graph.getMaxX() + " " + graph.getMaxY());
+            index.newLine();
+            List<String> profiles = graph.getProfiles();
+            for (String profile : profiles.subList(1, profiles.size())) {
+                index.write("profil " + profile);
+                index.newLine();
+            }
+
+            for (Map.Entry<String, List<Knoten>> entry : nodesByTile.entrySet()) {
+                String tile = entry.getKey();
+                Set<String> adjacentTiles = new TreeSet<>();
+                long sumX = 0, sumY = 0;
+                int[] extent = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE};
+                int edgeCount = 0;
+
+                try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve("kachel_" + tile + ".txt"))) {
+                    List<String> boundaryEdges = new ArrayList<>();
+                    for (Knoten node : entry.getValue()) {
+                        sumX += node.getX();
+                        sumY += node.getY();
+                        includeInExtent(extent, node);
+                        edgeCount += node.getNeighbors().size();
+
+                        List<String> neighborNames = new ArrayList<>();
+                        node.forEachEdge((neighbor, edge) -> {
+                            String weights = formatWeights(graph, edge);
+                            includeInExtent(extent, neighbor);
+                            String neighborTile = tileKey(Math.floorDiv(neighbor.getX() - minX, tileSize),
+                                    Math.floorDiv(neighbor.getY() - minY, tileSize));
+                            if (neighborTile.equals(tile)) {
+                                neighborNames.add(neighbor.getName() + weights);
+                            } else {
+                                adjacentTiles.add(neighborTile);
+                                boundaryEdges.add(node.getName() + " -> " + neighbor.getName()
+                                        + "(" + neighbor.getX() + ", " + neighbor.getY() + ")" + weights);
+                            }
+                        });
+                        writer.write(node.getName() + "(" + node.getX() + ", " + node.getY() + "), " + String.join(", ", neighborNames));
+                        writer.newLine();
+                    }
+                    for (String boundaryEdge : boundaryEdges) {
+                        writer.write(boundaryEdge);
+                        writer.newLine();
+                    }
+                }
+
+                int count = entry.getValue().size();
+                index.write("kachel " + tile + " " + count + " " + edgeCount + " " + (sumX / count) + " " + (sumY / count)
+                        + " " + extent[0] + " " + extent[1] + " " + extent[2] + " " + extent[3]
+                        + (adjacentTiles.isEmpty() ? "" : " " + String.join(" ", adjacentTiles)));
+                index.newLine();
+            }
+
+            TreeMap<String, String> tileByName = new TreeMap<>();
+            for (Map.Entry<String, List<Knoten>> entry : nodesByTile.entrySet()) {
+                for (Knoten node : entry.getValue()) {
+                    tileByName.put(node.getName(), entry.getKey());
+                }
+            }
+
+            int file = 0;
+            Iterator<Map.Entry<String, String>> names = tileByName.entrySet().iterator();
+            while (names.hasNext()) {
+                try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(nameFileName(file)))) {
+                    for (int i = 0; i < NAMES_PER_FILE && names.hasNext(); i++) {
+                        Map.Entry<String, String> name = names.next();
+                        if (i == 0) {
+                            index.write("namen " + file + " " + name.getKey());
+                            index.newLine();
+                        }
+                        writer.write(name.getKey() + " " + name.getValue());
+                        writer.newLine();
+                    }
+                }
+                file++;
+            }
+        }
+    }
+
+    // Schreibt die Kosten der Kante in den weiteren Profilen im Format der Kartendatei ("[12.5; inf]", leer ohne weitere Profile)
+    private static String formatWeights(Graph graph, int edge) {
+        int profileCount = graph.getProfiles().size();
+        if (profileCount <= 1) return "";
+
+        List<String> values = new ArrayList<>();
+        for (int profile = 1; profile < profileCount; profile++) {
+            double weight = graph.getProfileWeights(profile)[edge];
+            values.add(weight == Double.POSITIVE_INFINITY ? "inf" : Double.toString(weight));
+        }
+        return "[" + String.join("; ", values) + "]";
+    }
+
+    private static void includeInExtent(int[] extent, Knoten node) {
+        extent[0] = Math.min(extent[0], node.getX());
+        extent[1] = Math.min(extent[1], node.getY());
+        extent[2] = Math.max(extent[2], node.getX());
+        extent[3] = Math.max(extent[3], node.getY());
+    }
+
+    // Zerlegt eine Kartendatei in Kacheln: java TiledMap <kartendatei> <zielverzeichnis> <kachelgroesse>
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Aufruf: java TiledMap <kartendatei> <zielverzeichnis> <kachelgroesse>");
+            System.exit(1);
+        }
+
+        Graph graph = new FileReader().readGraphFromFile(args[0]);
+        write(graph, Paths.get(args[1]), Integer.parseInt(args[2]));
+        System.out.println("Kacheln geschrieben nach " + Paths.get(args[1]).resolve(INDEX_FILE));
+    }
+}